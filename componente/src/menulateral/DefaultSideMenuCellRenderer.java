@@ -0,0 +1,164 @@
+package menulateral;
+
+import java.awt.*;
+import java.io.Serializable;
+import java.util.Map;
+import javax.swing.*;
+
+/**
+ * Renderizador por defecto: pinta una fila con el mismo aspecto que
+ * SideMenuItemPanel (icono, texto, flecha de expansión y fondo al pasar el
+ * mouse) sin crear componentes por ítem.
+ */
+public class DefaultSideMenuCellRenderer extends JComponent implements SideMenuCellRenderer, Serializable {
+
+    private static final int ICON_SIZE = 24;
+    private static final int INDENT = 15; // px por nivel
+    private static final Color DISABLED_COLOR = new Color(120, 120, 120);
+
+    private SideMenuComponent menu;
+    private SideMenuItem item;
+    private boolean hovered;
+
+    @Override
+    public Component getSideMenuCellRendererComponent(SideMenuComponent menu, SideMenuItem item, int row, boolean hovered) {
+        this.menu = menu;
+        this.item = item;
+        this.hovered = hovered && item.isEnabled();
+        setFont(menu.getOpcionesFont());
+        setToolTipText(item.getTooltip());
+        return this;
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        if (menu != null && menu.getPreferredHeight() != 0) {
+            return new Dimension(0, menu.getPreferredHeight());
+        }
+        Font font = getFont();
+        int textHeight = font != null ? getFontMetrics(font).getHeight() + 3 : 0;
+        return new Dimension(0, Math.max(32, textHeight) + 10);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        if (item == null) return;
+
+        Graphics2D g2d = (Graphics2D) g.create();
+        int width = getWidth();
+        int height = getHeight();
+
+        // Fondo al pasar el mouse
+        if (hovered) {
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2d.setColor(menu.getHoverColor());
+            g2d.fillRoundRect(0, 0, width, height, 8, 8);
+        }
+
+        // Mismos márgenes que SideMenuItemPanel: 5 arriba/abajo, 10 a la derecha
+        int left = item.getLevel() * INDENT;
+        int right = width - 10;
+        int iconWidth = menu.getCollapsedWidth();
+
+        Icon icon = getIcon();
+        icon.paintIcon(this, g2d, left + (iconWidth - icon.getIconWidth()) / 2, (height - icon.getIconHeight()) / 2);
+
+        // Flecha de expansión, solo con el menú expandido
+        if (menu.isExpanded() && item.isHasChildren()) {
+            Icon arrow = item.isChildrenLoading() ? getLoadingIcon() : getArrowIcon(item.isExpanded());
+            right -= ICON_SIZE;
+            arrow.paintIcon(this, g2d, right + (ICON_SIZE - arrow.getIconWidth()) / 2, (height - arrow.getIconHeight()) / 2);
+        }
+
+        // Texto
+        String text = item.getText();
+        if (text != null && !text.isEmpty()) {
+            Object hints = Toolkit.getDefaultToolkit().getDesktopProperty("awt.font.desktophints");
+            if (hints instanceof Map) {
+                g2d.addRenderingHints((Map<?, ?>) hints);
+            }
+            g2d.setFont(getFont());
+            g2d.setColor(!item.isEnabled() ? DISABLED_COLOR : hovered ? menu.getTextHoverColor() : menu.getTextColor());
+
+            FontMetrics fm = g2d.getFontMetrics();
+            int x = left + iconWidth;
+            int y = 3 + (height + 3 - fm.getHeight()) / 2 + fm.getAscent();
+            g2d.drawString(clipText(fm, text, right - x), x, y);
+        }
+
+        g2d.dispose();
+    }
+
+    /**
+     * Icono de la fila; si aún no está decodificado se pinta el de por
+     * defecto y se carga en segundo plano
+     */
+    private Icon getIcon() {
+        if (menu.isAsyncIconLoading() && item.isIconPending()) {
+            final SideMenuComponent requestMenu = menu;
+            final SideMenuItem requestedItem = item;
+            SideMenuIconLoader.load(requestedItem, ICON_SIZE, menu.getDeviceScale(), () -> requestMenu.repaintMenuItem(requestedItem));
+            return getDefaultIcon();
+        }
+        // La caché toma primero los iconos empaquetados, sin decodificar el archivo
+        ImageIcon scaledIcon = SideMenuIconCache.getShared().getScaledIcon(item, ICON_SIZE, menu.getDeviceScale());
+        return scaledIcon != null ? scaledIcon : getDefaultIcon();
+    }
+
+    private Icon getArrowIcon(boolean down) {
+        return SideMenuIconAtlas.get(down ? SideMenuIconAtlas.Kind.ARROW_DOWN : SideMenuIconAtlas.Kind.ARROW_RIGHT,
+                16, menu.getTextColor(), menu.getDeviceScale());
+    }
+
+    private Icon getLoadingIcon() {
+        return SideMenuIconAtlas.get(SideMenuIconAtlas.Kind.LOADING, 16, menu.getTextColor(), menu.getDeviceScale());
+    }
+
+    private Icon getDefaultIcon() {
+        return SideMenuIconAtlas.get(SideMenuIconAtlas.Kind.DEFAULT, ICON_SIZE, SideMenuIconAtlas.DEFAULT_ICON_COLOR, menu.getDeviceScale());
+    }
+
+    // Recorta el texto con "..." si no cabe en el ancho disponible
+    private static String clipText(FontMetrics fm, String text, int available) {
+        if (fm.stringWidth(text) <= available) {
+            return text;
+        }
+        String ellipsis = "...";
+        int end = text.length();
+        while (end > 0 && fm.stringWidth(text.substring(0, end)) + fm.stringWidth(ellipsis) > available) {
+            end--;
+        }
+        return end > 0 ? text.substring(0, end) + ellipsis : "";
+    }
+
+    // === Igual que DefaultListCellRenderer: el renderizador no forma parte
+    // del árbol, así que se omiten las invalidaciones y repintados ===
+
+    @Override
+    public void invalidate() {
+    }
+
+    @Override
+    public void validate() {
+    }
+
+    @Override
+    public void revalidate() {
+    }
+
+    @Override
+    public void repaint(long tm, int x, int y, int width, int height) {
+    }
+
+    @Override
+    public void repaint(Rectangle r) {
+    }
+
+    @Override
+    public void repaint() {
+    }
+
+    @Override
+    protected void firePropertyChange(String propertyName, Object oldValue, Object newValue) {
+    }
+}
@@ -0,0 +1,20 @@
+package menulateral;
+
+import java.awt.event.ActionListener;
+
+/**
+ * Traduce los identificadores de acción de una definición de menú a los
+ * listeners de la aplicación.
+ *
+ * @see SideMenuXmlLoader
+ */
+public interface SideMenuActionResolver {
+
+    /**
+     * Obtiene el listener de una acción
+     *
+     * @param actionId Identificador escrito en la definición
+     * @return Listener de la acción, o null si no existe (la carga falla)
+     */
+    ActionListener resolveAction(String actionId);
+}
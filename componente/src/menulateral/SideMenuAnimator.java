@@ -0,0 +1,259 @@
+package menulateral;
+
+import java.io.Serializable;
+import java.util.EventListener;
+import javax.swing.Timer;
+
+/**
+ * Controlador de animación basado en tiempo transcurrido.
+ * Cada cuadro calcula el valor a partir del tiempo desde el inicio, de modo
+ * que un cuadro atrasado no alarga la animación. Si se cambia el destino a
+ * mitad de camino, la animación continúa desde el valor actual sin reiniciar
+ * otro Timer. También lleva estadísticas de los cuadros pintados.
+ */
+public final class SideMenuAnimator implements Serializable {
+
+    /**
+     * Curvas de aceleración disponibles
+     */
+    public enum Easing {
+        LINEAR {
+            @Override
+            public double apply(double t) {
+                return t;
+            }
+        },
+        EASE_IN {
+            @Override
+            public double apply(double t) {
+                return t * t * t;
+            }
+        },
+        EASE_OUT {
+            @Override
+            public double apply(double t) {
+                double u = 1 - t;
+                return 1 - u * u * u;
+            }
+        },
+        EASE_IN_OUT {
+            @Override
+            public double apply(double t) {
+                if (t < 0.5) {
+                    return 4 * t * t * t;
+                }
+                double u = -2 * t + 2;
+                return 1 - u * u * u / 2;
+            }
+        };
+
+        /**
+         * Transforma el progreso lineal t (0..1) según la curva
+         */
+        public abstract double apply(double t);
+    }
+
+    /**
+     * Recibe el valor de cada cuadro de la animación
+     */
+    public interface FrameListener extends EventListener {
+        void animationFrame(double value);
+    }
+
+    private static final int FRAME_DELAY = 16; // ~60 cuadros por segundo
+    private static final long LATE_FRAME_NANOS = 25_000_000L; // Más de 1.5 cuadros
+
+    private final FrameListener listener;
+    private Easing easing = Easing.EASE_IN_OUT;
+    private transient Timer timer;
+
+    // Estado de la animación en curso
+    private double value;
+    private double startValue;
+    private double targetValue;
+    private long startNanos;
+    private long durationNanos;
+    private Easing currentEasing;
+
+    // Estadísticas de cuadros
+    private transient long lastFrameNanos;
+    private transient int frameCount;
+    private transient long totalIntervalNanos;
+    private transient long maxIntervalNanos;
+    private transient long totalWorkNanos;
+    private transient long maxWorkNanos;
+    private transient int lateFrameCount;
+
+    SideMenuAnimator(FrameListener listener, double initialValue) {
+        this.listener = listener;
+        this.value = initialValue;
+        this.targetValue = initialValue;
+    }
+
+    /**
+     * Anima desde el valor actual hasta el destino en el tiempo indicado.
+     * Si ya hay una animación en curso se redirige sin saltos; en ese caso
+     * las curvas que arrancan desde reposo se sustituyen por EASE_OUT para
+     * conservar la velocidad.
+     *
+     * @param target Valor final
+     * @param durationMillis Duración en milisegundos; 0 aplica el valor de inmediato
+     */
+    void animateTo(double target, int durationMillis) {
+        if (durationMillis <= 0 || target == value) {
+            jumpTo(target);
+            return;
+        }
+
+        boolean running = isRunning();
+        startValue = value;
+        targetValue = target;
+        startNanos = System.nanoTime();
+        durationNanos = durationMillis * 1_000_000L;
+        currentEasing = running && (easing == Easing.EASE_IN || easing == Easing.EASE_IN_OUT)
+                ? Easing.EASE_OUT : easing;
+
+        if (!running) {
+            lastFrameNanos = 0;
+            getTimer().start();
+        }
+    }
+
+    /**
+     * Detiene la animación y aplica el valor indicado
+     */
+    void jumpTo(double target) {
+        stop();
+        value = target;
+        targetValue = target;
+        listener.animationFrame(target);
+    }
+
+    /**
+     * Detiene la animación y fija el valor actual sin notificar al listener
+     */
+    void reset(double value) {
+        stop();
+        this.value = value;
+        this.targetValue = value;
+    }
+
+    /**
+     * Detiene la animación dejando el valor actual
+     */
+    void stop() {
+        if (timer != null) {
+            timer.stop();
+        }
+        targetValue = value;
+    }
+
+    public boolean isRunning() {
+        return timer != null && timer.isRunning();
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    public double getTargetValue() {
+        return targetValue;
+    }
+
+    public Easing getEasing() {
+        return easing;
+    }
+
+    public void setEasing(Easing easing) {
+        this.easing = easing != null ? easing : Easing.EASE_IN_OUT;
+    }
+
+    private Timer getTimer() {
+        if (timer == null) {
+            timer = new Timer(FRAME_DELAY, e -> onFrame());
+            timer.setCoalesce(true);
+        }
+        return timer;
+    }
+
+    private void onFrame() {
+        long now = System.nanoTime();
+        if (lastFrameNanos != 0) {
+            long interval = now - lastFrameNanos;
+            totalIntervalNanos += interval;
+            maxIntervalNanos = Math.max(maxIntervalNanos, interval);
+            if (interval > LATE_FRAME_NANOS) {
+                lateFrameCount++;
+            }
+        }
+        lastFrameNanos = now;
+
+        double t = Math.min(1.0, (double) (now - startNanos) / durationNanos);
+        value = t >= 1.0 ? targetValue : startValue + (targetValue - startValue) * currentEasing.apply(t);
+        if (t >= 1.0) {
+            timer.stop();
+        }
+
+        listener.animationFrame(value);
+
+        long work = System.nanoTime() - now;
+        totalWorkNanos += work;
+        maxWorkNanos = Math.max(maxWorkNanos, work);
+        frameCount++;
+    }
+
+    // === Estadísticas de cuadros ===
+
+    /**
+     * Cuadros pintados desde el último reinicio de las estadísticas
+     */
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * Tiempo medio entre cuadros consecutivos en milisegundos
+     */
+    public double getAverageFrameMillis() {
+        int intervals = frameCount - 1;
+        return intervals > 0 ? totalIntervalNanos / 1e6 / intervals : 0;
+    }
+
+    public double getMaxFrameMillis() {
+        return maxIntervalNanos / 1e6;
+    }
+
+    /**
+     * Tiempo medio que tarda el trabajo de un cuadro (redimensionar y
+     * reacomodar) en milisegundos
+     */
+    public double getAverageFrameWorkMillis() {
+        return frameCount > 0 ? totalWorkNanos / 1e6 / frameCount : 0;
+    }
+
+    public double getMaxFrameWorkMillis() {
+        return maxWorkNanos / 1e6;
+    }
+
+    /**
+     * Cuadros que llegaron con más de 25 ms de retraso (por debajo de 40 fps)
+     */
+    public int getLateFrameCount() {
+        return lateFrameCount;
+    }
+
+    public void resetFrameStats() {
+        frameCount = 0;
+        totalIntervalNanos = 0;
+        maxIntervalNanos = 0;
+        totalWorkNanos = 0;
+        maxWorkNanos = 0;
+        lateFrameCount = 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SideMenuAnimator[cuadros=%d, media=%.1f ms, máx=%.1f ms, trabajo=%.2f ms, tardíos=%d]",
+                frameCount, getAverageFrameMillis(), getMaxFrameMillis(), getAverageFrameWorkMillis(), lateFrameCount);
+    }
+}
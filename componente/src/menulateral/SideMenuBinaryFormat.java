@@ -0,0 +1,393 @@
+package menulateral;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Formato binario compacto para guardar y cargar un SideMenuModel sin
+ * serialización de Java (que además guarda los píxeles de los iconos).
+ * <p>
+ * Estructura (enteros big-endian):
+ * <pre>
+ * Cabecera (24 bytes): magic "SMNU", versión (short), reservado (short),
+ *                      cantidad de cadenas, de nodos y de raíces, reservado
+ * Tabla de cadenas:    (cadenas + 1) desplazamientos int y los bytes UTF-8;
+ *                      cada cadena distinta se guarda una sola vez
+ * Nodos (32 bytes):    clave, texto, tooltip, ruta del icono y userData
+ *                      (índices de cadena, -1 = null), flags, primer hijo
+ *                      y cantidad de hijos
+ * </pre>
+ * Los nodos están en orden por niveles: las raíces primero y los hijos de
+ * cada nodo contiguos, así que el árbol se recorre sin tablas auxiliares.
+ * Los iconos se guardan por ruta y el userData solo si es un String.
+ * <p>
+ * {@link #open(Path)} mapea el archivo en memoria: {@link Reader} consulta
+ * los nodos directamente sobre el archivo mapeado y solo decodifica las
+ * cadenas que se piden. {@link #read(Path)} lo lee completo y construye el
+ * modelo.
+ */
+public final class SideMenuBinaryFormat {
+
+    private static final int MAGIC = 0x534D4E55; // "SMNU"
+    private static final short VERSION = 1;
+    private static final int HEADER_SIZE = 24;
+    private static final int NODE_SIZE = 32;
+    private static final int NO_STRING = -1;
+
+    // Flags de cada nodo
+    private static final int ENABLED = 1;
+    private static final int SHOWN = 1 << 1;
+    private static final int EXPANDED = 1 << 2;
+    private static final int HAS_CHILDREN = 1 << 3;
+
+    // Desplazamientos dentro de un nodo
+    private static final int KEY = 0;
+    private static final int TEXT = 4;
+    private static final int TOOLTIP = 8;
+    private static final int ICON_PATH = 12;
+    private static final int USER_DATA = 16;
+    private static final int FLAGS = 20;
+    private static final int FIRST_CHILD = 24;
+    private static final int CHILD_COUNT = 28;
+
+    private SideMenuBinaryFormat() {
+    }
+
+    // === Escritura ===
+
+    /**
+     * Guarda el modelo en un archivo, reemplazándolo si existe
+     */
+    public static void write(SideMenuModel model, Path file) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            write(model, out);
+        }
+    }
+
+    /**
+     * Escribe una copia consistente del modelo (no cierra el stream)
+     */
+    public static void write(SideMenuModel model, OutputStream out) throws IOException {
+        // Orden por niveles: cada nodo conoce la posición de su primer hijo
+        List<SideMenuModelSnapshot.Node> roots = model.getSnapshot().getItems();
+        List<SideMenuModelSnapshot.Node> nodes = new ArrayList<>();
+        ArrayDeque<SideMenuModelSnapshot.Node> queue = new ArrayDeque<>(roots);
+        while (!queue.isEmpty()) {
+            SideMenuModelSnapshot.Node node = queue.poll();
+            nodes.add(node);
+            queue.addAll(node.getChildren());
+        }
+
+        Map<String, Integer> stringIndex = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        int[] records = new int[nodes.size() * 8];
+        int nextChild = roots.size();
+        for (int i = 0; i < nodes.size(); i++) {
+            SideMenuModelSnapshot.Node node = nodes.get(i);
+            int base = i * 8;
+            records[base] = intern(node.getKey(), stringIndex, strings);
+            records[base + 1] = intern(node.getText(), stringIndex, strings);
+            records[base + 2] = intern(node.getTooltip(), stringIndex, strings);
+            records[base + 3] = intern(node.getIconPath(), stringIndex, strings);
+            records[base + 4] = node.getUserData() instanceof String
+                    ? intern((String) node.getUserData(), stringIndex, strings) : NO_STRING;
+            // HAS_CHILDREN se deriva de los hijos guardados (los diferidos no se
+            // guardan) y sirve para comprobar la cantidad al leer
+            int childCount = node.getChildren().size();
+            records[base + 5] = (node.isEnabled() ? ENABLED : 0) | (node.isShown() ? SHOWN : 0)
+                    | (node.isExpanded() ? EXPANDED : 0) | (childCount > 0 ? HAS_CHILDREN : 0);
+            records[base + 6] = childCount > 0 ? nextChild : -1;
+            records[base + 7] = childCount;
+            nextChild += childCount;
+        }
+
+        byte[][] encoded = new byte[strings.size()][];
+        int dataLength = 0;
+        for (int i = 0; i < encoded.length; i++) {
+            encoded[i] = strings.get(i).getBytes(StandardCharsets.UTF_8);
+            dataLength += encoded[i].length;
+        }
+
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out, 64 * 1024));
+        data.writeInt(MAGIC);
+        data.writeShort(VERSION);
+        data.writeShort(0);
+        data.writeInt(strings.size());
+        data.writeInt(nodes.size());
+        data.writeInt(roots.size());
+        data.writeInt(0);
+
+        int offset = 0;
+        for (byte[] bytes : encoded) {
+            data.writeInt(offset);
+            offset += bytes.length;
+        }
+        data.writeInt(offset);
+        for (byte[] bytes : encoded) {
+            data.write(bytes);
+        }
+        for (int pad = align(dataLength) - dataLength; pad > 0; pad--) {
+            data.writeByte(0); // Los nodos empiezan alineados a 4 bytes
+        }
+        for (int value : records) {
+            data.writeInt(value);
+        }
+        data.flush();
+    }
+
+    private static int intern(String value, Map<String, Integer> stringIndex, List<String> strings) {
+        if (value == null) return NO_STRING;
+        Integer index = stringIndex.get(value);
+        if (index == null) {
+            index = strings.size();
+            strings.add(value);
+            stringIndex.put(value, index);
+        }
+        return index;
+    }
+
+    private static int align(int length) {
+        return (length + 3) & ~3;
+    }
+
+    // === Lectura ===
+
+    /**
+     * Carga un modelo completo desde el archivo. El archivo se lee en memoria
+     * en lugar de mapearse: el modelo no lo necesita después de construirse y
+     * un mapeo lo dejaría bloqueado (en Windows) hasta que lo libere el GC.
+     */
+    public static SideMenuModel read(Path file) throws IOException {
+        return new Reader(ByteBuffer.wrap(Files.readAllBytes(file))).toModel();
+    }
+
+    /**
+     * Carga un modelo desde un recurso del classpath. Es el código que genera
+     * SideMenuModelEditor para los menús grandes, que se usa en un
+     * inicializador de campo: por eso no lanza excepciones comprobadas. Un
+     * recurso que falta o está dañado es un error de empaquetado y no se
+     * sustituye por un menú vacío.
+     *
+     * @param name Nombre absoluto del recurso, por ejemplo "/menulateral-menus/menu.smnu"
+     * @throws UncheckedIOException si el recurso falta, no se puede leer o no tiene el formato
+     * @throws IllegalStateException si el recurso tiene referencias incorrectas
+     */
+    public static SideMenuModel readResource(String name) {
+        try (InputStream in = SideMenuBinaryFormat.class.getResourceAsStream(name)) {
+            if (in == null) {
+                throw new FileNotFoundException("No se encontró el recurso del menú: " + name);
+            }
+            // Los recursos pueden estar dentro de un jar: se leen en lugar de mapearse
+            return new Reader(ByteBuffer.wrap(in.readAllBytes())).toModel();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo cargar el menú " + name + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Mapea el archivo en memoria y valida su estructura, sin construir ítems
+     *
+     * @throws IOException si el archivo no se puede leer o no tiene el formato
+     */
+    public static Reader open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // El mapeo sigue siendo válido después de cerrar el canal
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new Reader(buffer);
+        }
+    }
+
+    /**
+     * Vista de solo lectura sobre un archivo mapeado. Los nodos se identifican
+     * por su índice; las raíces son los nodos 0 a getRootCount() - 1. Las
+     * cadenas se decodifican al pedirlas y se guardan para las siguientes
+     * consultas. No es segura para usar desde varios hilos a la vez.
+     */
+    public static final class Reader {
+        private final ByteBuffer buffer;
+        private final int stringCount;
+        private final int nodeCount;
+        private final int rootCount;
+        private final int offsetsStart;
+        private final int dataStart;
+        private final int nodesStart;
+        private final String[] strings;
+
+        Reader(ByteBuffer buffer) throws IOException {
+            this.buffer = buffer;
+            if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+                throw new IOException("Formato de menú no válido: falta la cabecera");
+            }
+            if (buffer.getShort(4) != VERSION) {
+                throw new IOException("Versión de formato de menú no soportada: " + buffer.getShort(4));
+            }
+            stringCount = buffer.getInt(8);
+            nodeCount = buffer.getInt(12);
+            rootCount = buffer.getInt(16);
+            if (stringCount < 0 || nodeCount < 0 || rootCount < 0 || rootCount > nodeCount) {
+                throw new IOException("Formato de menú no válido: cantidades incorrectas");
+            }
+
+            offsetsStart = HEADER_SIZE;
+            dataStart = offsetsStart + (stringCount + 1) * 4;
+            if (dataStart > buffer.limit()) {
+                throw new IOException("Formato de menú no válido: tabla de cadenas truncada");
+            }
+            int dataLength = buffer.getInt(dataStart - 4);
+            nodesStart = dataStart + align(dataLength);
+            if (dataLength < 0 || (long) nodesStart + (long) nodeCount * NODE_SIZE > buffer.limit()) {
+                throw new IOException("Formato de menú no válido: archivo truncado");
+            }
+            strings = new String[stringCount];
+        }
+
+        public int getNodeCount() {
+            return nodeCount;
+        }
+
+        public int getRootCount() {
+            return rootCount;
+        }
+
+        public String getKey(int node) {
+            return string(node, KEY);
+        }
+
+        public String getText(int node) {
+            return string(node, TEXT);
+        }
+
+        public String getTooltip(int node) {
+            return string(node, TOOLTIP);
+        }
+
+        public String getIconPath(int node) {
+            return string(node, ICON_PATH);
+        }
+
+        public String getUserData(int node) {
+            return string(node, USER_DATA);
+        }
+
+        public boolean isEnabled(int node) {
+            return (field(node, FLAGS) & ENABLED) != 0;
+        }
+
+        public boolean isShown(int node) {
+            return (field(node, FLAGS) & SHOWN) != 0;
+        }
+
+        public boolean isExpanded(int node) {
+            return (field(node, FLAGS) & EXPANDED) != 0;
+        }
+
+        /**
+         * Índice del primer hijo (los demás le siguen), o -1 si no tiene
+         */
+        public int getFirstChild(int node) {
+            return field(node, FIRST_CHILD);
+        }
+
+        public int getChildCount(int node) {
+            return field(node, CHILD_COUNT);
+        }
+
+        /**
+         * Construye el ítem del nodo con todos sus descendientes
+         *
+         * @throws IllegalStateException si el archivo tiene referencias incorrectas
+         */
+        public SideMenuItem toItem(int node) {
+            SideMenuItem item = createItem(node);
+            addChildren(item, node);
+            return item;
+        }
+
+        private SideMenuItem createItem(int node) {
+            String key = getKey(node);
+            SideMenuItem item = (key != null)
+                    ? new SideMenuItem(key, getText(node), getIconPath(node), getTooltip(node))
+                    : new SideMenuItem(getText(node), getIconPath(node), getTooltip(node));
+            item.setUserData(getUserData(node));
+            item.setEnabled(isEnabled(node));
+            item.setShown(isShown(node));
+            return item;
+        }
+
+        // Cada hijo se agrega a su padre antes de recibir sus propios hijos,
+        // así el nivel de toda la rama queda correcto
+        private void addChildren(SideMenuItem item, int node) {
+            int first = getFirstChild(node);
+            int count = getChildCount(node);
+            if (count > 0 && (first <= node || first + count > nodeCount)) {
+                throw new IllegalStateException("Formato de menú no válido: hijos incorrectos en el nodo " + node);
+            }
+            if (((field(node, FLAGS) & HAS_CHILDREN) != 0) != (count > 0)) {
+                throw new IllegalStateException("Formato de menú no válido: cantidad de hijos incorrecta en el nodo " + node);
+            }
+            for (int i = 0; i < count; i++) {
+                SideMenuItem child = createItem(first + i);
+                item.addChild(child);
+                addChildren(child, first + i);
+            }
+            item.setExpanded(isExpanded(node));
+        }
+
+        /**
+         * Construye un modelo nuevo con todo el árbol; los ítems se crean
+         * sin modelo y se agregan de una sola vez, sin generar eventos
+         */
+        public SideMenuModel toModel() {
+            List<SideMenuItem> roots = new ArrayList<>(rootCount);
+            for (int i = 0; i < rootCount; i++) {
+                roots.add(toItem(i));
+            }
+            return new SideMenuModel(roots);
+        }
+
+        private int field(int node, int offset) {
+            if (node < 0 || node >= nodeCount) {
+                throw new IndexOutOfBoundsException("Nodo " + node + " fuera de rango (" + nodeCount + ")");
+            }
+            return buffer.getInt(nodesStart + node * NODE_SIZE + offset);
+        }
+
+        private String string(int node, int offset) {
+            int index = field(node, offset);
+            if (index == NO_STRING) return null;
+            if (index < 0 || index >= stringCount) {
+                throw new IllegalStateException("Formato de menú no válido: cadena " + index + " en el nodo " + node);
+            }
+            String value = strings[index];
+            if (value == null) {
+                int start = buffer.getInt(offsetsStart + index * 4);
+                int end = buffer.getInt(offsetsStart + (index + 1) * 4);
+                if (start < 0 || end < start || dataStart + end > nodesStart) {
+                    throw new IllegalStateException("Formato de menú no válido: cadena " + index + " fuera de rango");
+                }
+                byte[] bytes = new byte[end - start];
+                buffer.get(dataStart + start, bytes);
+                value = new String(bytes, StandardCharsets.UTF_8);
+                strings[index] = value;
+            }
+            return value;
+        }
+    }
+}
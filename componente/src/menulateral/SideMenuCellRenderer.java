@@ -0,0 +1,22 @@
+package menulateral;
+
+import java.awt.Component;
+
+/**
+ * Renderizador de filas para el modo de pintado directo de SideMenuComponent,
+ * al estilo de ListCellRenderer. El componente devuelto no se agrega al
+ * árbol de Swing: solo se usa para pintar la fila y se reutiliza para todas.
+ */
+public interface SideMenuCellRenderer {
+
+    /**
+     * Configura y devuelve el componente con el que se pinta una fila
+     *
+     * @param menu Menú que pinta la fila (colores, fuente, estado expandido)
+     * @param item Ítem de la fila
+     * @param row Índice de la fila entre las filas visibles
+     * @param hovered true si el mouse está sobre la fila
+     * @return Componente configurado para pintar la fila
+     */
+    Component getSideMenuCellRendererComponent(SideMenuComponent menu, SideMenuItem item, int row, boolean hovered);
+}
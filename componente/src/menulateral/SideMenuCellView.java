@@ -0,0 +1,210 @@
+package menulateral;
+
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.swing.*;
+
+/**
+ * Vista de pintado directo: un solo componente pinta todas las filas con un
+ * SideMenuCellRenderer y resuelve los clics por coordenada. La cantidad de
+ * componentes no crece con el tamaño del menú.
+ */
+class SideMenuCellView extends JComponent implements Scrollable {
+
+    private static final int ROW_GAP = 2; // Mismo espaciado que el modo normal
+    private static final Cursor HAND_CURSOR = Cursor.getPredefinedCursor(Cursor.HAND_CURSOR);
+
+    private final SideMenuComponent menu;
+    private final CellRendererPane rendererPane = new CellRendererPane();
+    private List<SideMenuItem> rows = new ArrayList<>();
+    private Map<SideMenuItem, Integer> rowIndex; // Se construye al primer uso
+    private int rowHeight;
+    private SideMenuItem hoveredItem;
+
+    SideMenuCellView(SideMenuComponent menu) {
+        this.menu = menu;
+        setOpaque(false);
+        add(rendererPane);
+        ToolTipManager.sharedInstance().registerComponent(this);
+
+        // El estado hover lo controla SideMenuComponent con setHoveredItem()
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int row = rowAtPoint(e.getY());
+                if (row >= 0) {
+                    rowClicked(rows.get(row));
+                }
+            }
+        });
+    }
+
+    /**
+     * Establece la lista plana de ítems a pintar
+     */
+    void setRows(List<SideMenuItem> rows) {
+        this.rows = rows;
+        rowIndex = null;
+        revalidate();
+        repaint();
+    }
+
+    List<SideMenuItem> getRows() {
+        return rows;
+    }
+
+    /**
+     * Vuelve a medir el alto de fila (cambió la fuente o el alto preferido)
+     */
+    void resetRowHeight() {
+        rowHeight = 0;
+        revalidate();
+        repaint();
+    }
+
+    int getRowHeight() {
+        if (rowHeight == 0 && !rows.isEmpty()) {
+            Component c = menu.getCellRenderer().getSideMenuCellRendererComponent(menu, rows.get(0), 0, false);
+            rowHeight = c.getPreferredSize().height + ROW_GAP;
+        }
+        return rowHeight;
+    }
+
+    /**
+     * Índice de la fila en la coordenada y, o -1 si no hay fila
+     */
+    int rowAtPoint(int y) {
+        int height = getRowHeight();
+        if (height == 0 || y < 0) return -1;
+        int row = y / height;
+        // El espaciado entre filas no pertenece a ninguna fila
+        if (row >= rows.size() || y - row * height >= height - ROW_GAP) return -1;
+        return row;
+    }
+
+    Rectangle getRowBounds(int row) {
+        int height = getRowHeight();
+        return new Rectangle(0, row * height, getWidth(), height - ROW_GAP);
+    }
+
+    /**
+     * Repinta solo la fila del ítem
+     * @return false si el ítem no está entre las filas
+     */
+    boolean repaintItem(SideMenuItem item) {
+        int row = indexOf(item);
+        if (row < 0) return false;
+        repaint(getRowBounds(row));
+        return true;
+    }
+
+    private int indexOf(SideMenuItem item) {
+        if (rowIndex == null) {
+            rowIndex = new IdentityHashMap<>(rows.size() * 2);
+            for (int i = 0; i < rows.size(); i++) {
+                rowIndex.put(rows.get(i), i);
+            }
+        }
+        Integer row = rowIndex.get(item);
+        return row != null ? row : -1;
+    }
+
+    SideMenuItem getHoveredItem() {
+        return hoveredItem;
+    }
+
+    /**
+     * Cambia la fila bajo el mouse repintando solo la anterior y la nueva
+     */
+    void setHoveredItem(SideMenuItem item) {
+        if (item == hoveredItem) return;
+        if (hoveredItem != null) {
+            repaintItem(hoveredItem);
+        }
+        hoveredItem = item;
+        if (item != null) {
+            repaintItem(item);
+        }
+        setCursor(item != null && item.isEnabled() ? HAND_CURSOR : null);
+    }
+
+    // Mismo comportamiento que el clic en SideMenuItemPanel
+    private void rowClicked(SideMenuItem item) {
+        if (!item.isEnabled()) return;
+        if (item.isHasChildren()) {
+            item.toggleExpanded();
+            if (item.isExpanded()) {
+                item.loadChildrenIfNeeded();
+            }
+            // El evento del modelo actualiza las filas
+        } else {
+            item.executeAction();
+        }
+    }
+
+    @Override
+    public String getToolTipText(MouseEvent e) {
+        int row = rowAtPoint(e.getY());
+        return row >= 0 ? rows.get(row).getTooltip() : null;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        int height = getRowHeight();
+        if (height == 0) return;
+
+        // Solo las filas que intersectan el área a pintar
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        int first = Math.max(0, clip.y / height);
+        int last = Math.min(rows.size() - 1, (clip.y + clip.height) / height);
+
+        SideMenuCellRenderer renderer = menu.getCellRenderer();
+        int width = getWidth();
+        for (int i = first; i <= last; i++) {
+            SideMenuItem item = rows.get(i);
+            Component c = renderer.getSideMenuCellRendererComponent(menu, item, i, item == hoveredItem);
+            rendererPane.paintComponent(g, c, this, 0, i * height, width, height - ROW_GAP, true);
+        }
+        rendererPane.removeAll();
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        return new Dimension(0, rows.size() * getRowHeight());
+    }
+
+    // === Scrollable ===
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return getPreferredSize();
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return Math.max(1, getRowHeight());
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.VERTICAL ? visibleRect.height : visibleRect.width;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return true;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return false;
+    }
+}
@@ -0,0 +1,23 @@
+package menulateral;
+
+import java.util.List;
+
+/**
+ * Proveedor de los hijos de un ítem que se cargan bajo demanda, la primera
+ * vez que el usuario lo expande.
+ *
+ * @see SideMenuItem#setChildLoader(SideMenuChildLoader, long)
+ */
+public interface SideMenuChildLoader {
+
+    /**
+     * Obtiene los hijos del ítem. Se invoca fuera del EDT, así que puede
+     * bloquearse consultando un servicio o una base de datos.
+     *
+     * @param parent Ítem que se está expandiendo
+     * @return Hijos nuevos del ítem (null o vacía si no tiene)
+     * @throws Exception si no se pudieron obtener; el ítem queda sin
+     *                   cargar y se reintenta en la siguiente expansión
+     */
+    List<SideMenuItem> loadChildren(SideMenuItem parent) throws Exception;
+}
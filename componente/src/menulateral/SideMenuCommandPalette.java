@@ -0,0 +1,429 @@
+package menulateral;
+
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import javax.swing.border.LineBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+
+/**
+ * Paleta de comandos de un SideMenuComponent (Ctrl+K): busca cualquier
+ * opción del árbol, a cualquier profundidad, por su texto, su tooltip o su
+ * camino ("conf usr" encuentra "Configuración > Usuarios").
+ * <p>
+ * La puntuación se reparte entre los núcleos con fork-join sobre una lista
+ * plana de candidatos que solo se reconstruye cuando cambia el modelo. Cada
+ * tecla cancela la búsqueda anterior. Al elegir un resultado se cierra la
+ * paleta y se ejecuta la acción del ítem.
+ */
+public class SideMenuCommandPalette extends JPanel {
+
+    private static final int MAX_RESULTS = 50;
+    private static final int SPLIT_THRESHOLD = 512; // Candidatos por subtarea
+    private static final String PATH_SEPARATOR = " > ";
+    private static final int TEXT_BONUS = 2;        // Coincidir en el propio texto pesa más
+    private static final int TOOLTIP_PENALTY = 2;   // y en el tooltip, menos
+
+    private final SideMenuComponent menu;
+    private final JTextField queryField;
+    private final JList<SideMenuItem> resultList;
+    private transient JDialog dialog;
+    private transient volatile Search currentSearch;
+    private transient volatile Candidates candidates;
+
+    // Estado de una búsqueda; la siguiente tecla la marca como cancelada
+    private static final class Search {
+        volatile boolean cancelled;
+    }
+
+    // Ítem con sus textos normalizados para puntuar
+    private static final class Candidate {
+        final SideMenuItem item;
+        final String text;
+        final String tooltip;
+        final String path;
+        final int order; // Posición en el árbol, para desempatar
+
+        Candidate(SideMenuItem item, String text, String tooltip, String path, int order) {
+            this.item = item;
+            this.text = text;
+            this.tooltip = tooltip;
+            this.path = path;
+            this.order = order;
+        }
+    }
+
+    private static final class Candidates {
+        final SideMenuModel model;
+        final long version;
+        final Candidate[] items;
+
+        Candidates(SideMenuModel model, long version, Candidate[] items) {
+            this.model = model;
+            this.version = version;
+            this.items = items;
+        }
+    }
+
+    private static final class Scored {
+        final Candidate candidate;
+        final int score;
+
+        Scored(Candidate candidate, int score) {
+            this.candidate = candidate;
+            this.score = score;
+        }
+    }
+
+    private static final Comparator<Scored> BEST_FIRST = Comparator
+            .comparingInt((Scored s) -> -s.score)
+            .thenComparingInt(s -> s.candidate.path.length())
+            .thenComparingInt(s -> s.candidate.order);
+
+    /**
+     * Puntúa un rango de candidatos y se divide mientras el rango sea grande;
+     * cada parte devuelve solo sus MAX_RESULTS mejores
+     */
+    private static final class ScoreTask extends RecursiveTask<List<Scored>> {
+        private final Candidate[] candidates;
+        private final int from;
+        private final int to;
+        private final List<String> terms;
+        private final Search search;
+
+        ScoreTask(Candidate[] candidates, int from, int to, List<String> terms, Search search) {
+            this.candidates = candidates;
+            this.from = from;
+            this.to = to;
+            this.terms = terms;
+            this.search = search;
+        }
+
+        @Override
+        protected List<Scored> compute() {
+            if (to - from > SPLIT_THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                ScoreTask left = new ScoreTask(candidates, from, middle, terms, search);
+                left.fork();
+                List<Scored> right = new ScoreTask(candidates, middle, to, terms, search).compute();
+                return best(left.join(), right);
+            }
+            List<Scored> matches = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                if (search.cancelled) {
+                    return Collections.emptyList();
+                }
+                int score = scoreCandidate(candidates[i], terms);
+                if (score != SideMenuFuzzyMatcher.NO_MATCH) {
+                    matches.add(new Scored(candidates[i], score));
+                }
+            }
+            return best(matches, Collections.emptyList());
+        }
+    }
+
+    public SideMenuCommandPalette(SideMenuComponent menu) {
+        this.menu = menu;
+        setLayout(new BorderLayout(0, 6));
+        setBorder(BorderFactory.createCompoundBorder(new LineBorder(menu.getTextColor()), new EmptyBorder(8, 8, 8, 8)));
+        setBackground(menu.getBackgroundColor());
+
+        queryField = new JTextField();
+        queryField.setFont(menu.getOpcionesFont());
+        queryField.getDocument().addDocumentListener(new QueryDocumentListener());
+
+        resultList = new JList<>();
+        resultList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        resultList.setCellRenderer(new ResultRenderer());
+        resultList.setFocusable(false); // El foco se queda en el campo de búsqueda
+        resultList.addMouseListener(new ResultMouseListener());
+
+        // Teclas de navegación sobre el campo de búsqueda
+        bindKey(KeyEvent.VK_UP, "previousResult", new MoveSelectionAction(-1));
+        bindKey(KeyEvent.VK_DOWN, "nextResult", new MoveSelectionAction(1));
+        bindKey(KeyEvent.VK_ENTER, "chooseResult", new ChooseAction());
+        bindKey(KeyEvent.VK_ESCAPE, "hidePalette", new HideAction());
+
+        JScrollPane scrollPane = new JScrollPane(resultList);
+        scrollPane.setBorder(null);
+        add(queryField, BorderLayout.NORTH);
+        add(scrollPane, BorderLayout.CENTER);
+        setPreferredSize(new Dimension(480, 340));
+    }
+
+    private void bindKey(int keyCode, String name, Action action) {
+        queryField.getInputMap().put(KeyStroke.getKeyStroke(keyCode, 0), name);
+        queryField.getActionMap().put(name, action);
+    }
+
+    /**
+     * Muestra la paleta sobre la ventana del menú, con el foco en la búsqueda
+     */
+    public void showPalette() {
+        Window owner = SwingUtilities.getWindowAncestor(menu);
+        if (dialog == null || dialog.getOwner() != owner) {
+            if (dialog != null) {
+                dialog.dispose();
+            }
+            dialog = new JDialog(owner, Dialog.ModalityType.MODELESS);
+            dialog.setUndecorated(true);
+            dialog.setContentPane(this);
+            dialog.addWindowListener(new HideOnDeactivateListener());
+            dialog.pack();
+        }
+
+        // Centrada horizontalmente, cerca del borde superior de la ventana
+        if (owner != null) {
+            Rectangle bounds = owner.getBounds();
+            dialog.setLocation(bounds.x + (bounds.width - dialog.getWidth()) / 2, bounds.y + 80);
+        } else {
+            dialog.setLocationRelativeTo(null);
+        }
+        queryField.selectAll();
+        dialog.setVisible(true);
+        queryField.requestFocusInWindow();
+        queryChanged();
+    }
+
+    public void hidePalette() {
+        Search search = currentSearch;
+        if (search != null) {
+            search.cancelled = true;
+        }
+        if (dialog != null) {
+            dialog.setVisible(false);
+        }
+    }
+
+    public boolean isPaletteVisible() {
+        return dialog != null && dialog.isVisible();
+    }
+
+    /**
+     * Busca en todo el árbol del menú, cancelando la búsqueda anterior
+     *
+     * @param query Términos separados por espacios; cada uno debe coincidir
+     *              (como subsecuencia) con el texto, el tooltip o el camino
+     * @return Los mejores resultados, de mejor a peor; se completa fuera del
+     *         EDT y se cancela si otra búsqueda la reemplaza
+     */
+    public CompletableFuture<List<SideMenuItem>> search(String query) {
+        final Search search = new Search();
+        Search previous = currentSearch;
+        currentSearch = search;
+        if (previous != null) {
+            previous.cancelled = true;
+        }
+
+        final List<String> terms = SideMenuPrefixTrie.words(query);
+        final SideMenuModel model = menu.getModel();
+        final CompletableFuture<List<SideMenuItem>> result = new CompletableFuture<>();
+        SideMenuExecutors.background().execute(() -> {
+            try {
+                Candidate[] all = getCandidates(model);
+                List<Scored> best;
+                if (terms.isEmpty()) {
+                    best = new ArrayList<>();
+                    for (int i = 0; i < all.length && best.size() < MAX_RESULTS; i++) {
+                        best.add(new Scored(all[i], 0));
+                    }
+                } else {
+                    best = ForkJoinPool.commonPool().invoke(new ScoreTask(all, 0, all.length, terms, search));
+                }
+                if (search.cancelled) {
+                    result.cancel(false);
+                    return;
+                }
+                List<SideMenuItem> items = new ArrayList<>(best.size());
+                for (Scored scored : best) {
+                    items.add(scored.candidate.item);
+                }
+                result.complete(items);
+            } catch (Exception e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Lista plana de candidatos; se reconstruye solo si cambió el modelo
+     */
+    private Candidate[] getCandidates(SideMenuModel model) {
+        SideMenuModelSnapshot snapshot = model.getSnapshot();
+        Candidates current = candidates;
+        if (current == null || current.model != model || current.version != snapshot.getVersion()) {
+            List<Candidate> list = new ArrayList<>(snapshot.getNodeCount());
+            addCandidates(snapshot.getItems(), "", list);
+            current = new Candidates(model, snapshot.getVersion(), list.toArray(new Candidate[0]));
+            candidates = current;
+        }
+        return current.items;
+    }
+
+    private static void addCandidates(List<SideMenuModelSnapshot.Node> nodes, String parentPath, List<Candidate> list) {
+        for (SideMenuModelSnapshot.Node node : nodes) {
+            if (!node.isShown() || !node.isEnabled()) {
+                continue; // Ni las opciones ocultas ni las deshabilitadas se pueden ejecutar
+            }
+            String text = SideMenuPrefixTrie.normalize(node.getText());
+            String path = parentPath.isEmpty() ? text : parentPath + PATH_SEPARATOR + text;
+            list.add(new Candidate(node.getItem(), text, SideMenuPrefixTrie.normalize(node.getTooltip()), path, list.size()));
+            addCandidates(node.getChildren(), path, list);
+        }
+    }
+
+    private static int scoreCandidate(Candidate candidate, List<String> terms) {
+        int total = 0;
+        for (String term : terms) {
+            int best = SideMenuFuzzyMatcher.score(term, candidate.path);
+            int text = SideMenuFuzzyMatcher.score(term, candidate.text);
+            if (text != SideMenuFuzzyMatcher.NO_MATCH) {
+                best = Math.max(best, text + TEXT_BONUS);
+            }
+            int tooltip = SideMenuFuzzyMatcher.score(term, candidate.tooltip);
+            if (tooltip != SideMenuFuzzyMatcher.NO_MATCH) {
+                best = Math.max(best, Math.max(0, tooltip - TOOLTIP_PENALTY));
+            }
+            if (best == SideMenuFuzzyMatcher.NO_MATCH) {
+                return SideMenuFuzzyMatcher.NO_MATCH; // Todos los términos deben coincidir
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    // Une dos listas de resultados y conserva los MAX_RESULTS mejores
+    private static List<Scored> best(List<Scored> a, List<Scored> b) {
+        List<Scored> merged = new ArrayList<>(a.size() + b.size());
+        merged.addAll(a);
+        merged.addAll(b);
+        merged.sort(BEST_FIRST);
+        return merged.size() > MAX_RESULTS ? new ArrayList<>(merged.subList(0, MAX_RESULTS)) : merged;
+    }
+
+    private void queryChanged() {
+        final String query = queryField.getText();
+        search(query).thenAccept(items -> SwingUtilities.invokeLater(() -> showResults(query, items)));
+    }
+
+    private void showResults(String query, List<SideMenuItem> items) {
+        if (!query.equals(queryField.getText())) return; // Llegó tarde
+        resultList.setListData(items.toArray(new SideMenuItem[0]));
+        if (!items.isEmpty()) {
+            resultList.setSelectedIndex(0);
+        }
+    }
+
+    /**
+     * Cierra la paleta y ejecuta la acción del ítem elegido
+     */
+    private void choose(SideMenuItem item) {
+        if (item == null) return;
+        hidePalette();
+        item.executeAction();
+    }
+
+    private static String pathOf(SideMenuItem item) {
+        StringBuilder path = new StringBuilder(item.toString());
+        for (SideMenuItem parent = item.getParent(); parent != null; parent = parent.getParent()) {
+            path.insert(0, PATH_SEPARATOR).insert(0, parent.toString());
+        }
+        return path.toString();
+    }
+
+    // === Clases internas nombradas para los listeners y acciones ===
+
+    private class QueryDocumentListener implements DocumentListener, Serializable {
+        @Override
+        public void insertUpdate(DocumentEvent e) {
+            queryChanged();
+        }
+
+        @Override
+        public void removeUpdate(DocumentEvent e) {
+            queryChanged();
+        }
+
+        @Override
+        public void changedUpdate(DocumentEvent e) {
+        }
+    }
+
+    private class MoveSelectionAction extends AbstractAction {
+        private final int delta;
+
+        MoveSelectionAction(int delta) {
+            this.delta = delta;
+        }
+
+        @Override
+        public void actionPerformed(ActionEvent e) {
+            int size = resultList.getModel().getSize();
+            if (size == 0) return;
+            int index = Math.max(0, Math.min(size - 1, resultList.getSelectedIndex() + delta));
+            resultList.setSelectedIndex(index);
+            resultList.ensureIndexIsVisible(index);
+        }
+    }
+
+    private class ChooseAction extends AbstractAction {
+        @Override
+        public void actionPerformed(ActionEvent e) {
+            choose(resultList.getSelectedValue());
+        }
+    }
+
+    private class HideAction extends AbstractAction {
+        @Override
+        public void actionPerformed(ActionEvent e) {
+            hidePalette();
+        }
+    }
+
+    private class ResultMouseListener extends MouseAdapter implements Serializable {
+        @Override
+        public void mouseClicked(MouseEvent e) {
+            int index = resultList.locationToIndex(e.getPoint());
+            if (index >= 0 && e.getClickCount() == 2) {
+                choose(resultList.getModel().getElementAt(index));
+            }
+        }
+    }
+
+    // Se cierra al perder el foco, como un menú emergente
+    private class HideOnDeactivateListener extends WindowAdapter implements Serializable {
+        @Override
+        public void windowDeactivated(WindowEvent e) {
+            hidePalette();
+        }
+    }
+
+    private class ResultRenderer extends DefaultListCellRenderer {
+        @Override
+        public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                boolean isSelected, boolean cellHasFocus) {
+            SideMenuItem item = (SideMenuItem) value;
+            super.getListCellRendererComponent(list, pathOf(item), index, isSelected, cellHasFocus);
+            setFont(menu.getOpcionesFont());
+            setToolTipText(item.getTooltip());
+            setBorder(new EmptyBorder(4, 6, 4, 6));
+            return this;
+        }
+    }
+}
@@ -1,17 +1,37 @@
 package menulateral;
 
 import java.awt.*;
+import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.geom.RoundRectangle2D;
 import java.awt.image.BufferedImage;
 import java.beans.BeanProperty;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
-import javax.swing.event.ChangeEvent;
-import javax.swing.event.ChangeListener;
+import javax.swing.border.MatteBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 
 /**
  * Componente de menú lateral personalizado para NetBeans
@@ -31,7 +51,10 @@ public class SideMenuComponent extends JPanel implements Serializable {
     private Color textColor = Color.BLACK;
     private String logoText = "";
     private Font opcionesFont = new Font("Poppins SemiBold", Font.PLAIN, 14);
-    private ChangeListener modelChangeListener;
+    private SideMenuModelListener modelChangeListener;
+    private boolean menuUpdatePending = false;
+    private int animationDuration = 200; // Milisegundos para un recorrido completo
+    private double deviceScale = 1.0; // Escala de la pantalla actual (HiDPI)
     
     // Modelo de datos
     private SideMenuModel model;
@@ -46,26 +69,163 @@ public class SideMenuComponent extends JPanel implements Serializable {
     private JLabel logoLabel;
     private JButton toggleButton;
     private JPanel contentPanel;
+    private JLayer<JComponent> contentLayer; // Envuelve el contenido para seguir el mouse
+    private SideMenuItemPanel hoveredPanel;
+    
+    // Modo virtualizado: solo se crean paneles para las filas visibles
+    private boolean virtualized = false;
+    
+    // Carga de iconos en segundo plano
+    private boolean asyncIconLoading = true;
+    private SideMenuVirtualPanel virtualPanel;
+    private JScrollPane virtualScrollPane;
+    
+    // Pintado directo: un solo componente pinta todas las filas
+    private boolean flyweightRendering = false;
+    private SideMenuCellRenderer cellRenderer = new DefaultSideMenuCellRenderer();
+    private SideMenuCellView cellView;
+    private JScrollPane cellScrollPane;
+    
+    // Paneles de los ítems mostrados, por identidad del ítem; no se
+    // serializan y se vuelven a crear al deserializar
+    private transient Map<SideMenuItem, ItemRow> itemRows = new IdentityHashMap<>();
+    private transient Component verticalGlue;
+    
+    // Único controlador para la animación de ancho
+    private final SideMenuAnimator resizeAnimator = new SideMenuAnimator(new ResizeFrameListener(), collapsedWidth);
+    
+    // Transición con capturas: durante la animación se pintan dos imágenes
+    // (ancho inicial y final) en lugar de disponer y pintar los hijos
+    private boolean snapshotTransitions = true;
+    private boolean transitionAntialiasing = false;
+    private transient SideMenuSnapshot transitionFrom;
+    private transient SideMenuSnapshot transitionTo;
+    private transient boolean transitionReversed;
+    private transient boolean layoutFrozen;
+    
+    // Carga asíncrona del modelo: cada carga nueva invalida las anteriores
+    private static final int ITEM_ICON_SIZE = 24; // Mismo tamaño que SideMenuItemPanel
+    private String loadingText = "Cargando...";
+    private transient boolean loading;
+    private transient volatile long loadGeneration;
+    private transient CompletableFuture<SideMenuModel> pendingLoad;
+    
+    // Filtro de texto: términos actuales y ítems que coinciden con ellos
+    private static final int HEADER_HEIGHT = 60;
+    private boolean filterVisible = false;
+    private String filterText = "";
+    private JTextField filterField;
+    private transient List<String> filterTerms; // null = sin filtro
+    private transient Set<SideMenuItem> filterMatches;
+    private transient long filterVersion; // Versión del modelo de filterMatches
+    
+    // Paleta de comandos (Ctrl+K)
+    private static final KeyStroke COMMAND_PALETTE_KEY = KeyStroke.getKeyStroke(KeyEvent.VK_K, InputEvent.CTRL_DOWN_MASK);
+    private static final String COMMAND_PALETTE_ACTION = "showCommandPalette";
+    private boolean commandPaletteEnabled = false;
+    private transient SideMenuCommandPalette commandPalette;
+    
+    /**
+     * Panel de un ítem junto con el espaciado que lo sigue
+     */
+    private static class ItemRow {
+        final SideMenuItemPanel panel;
+        final Component spacer;
+        final int depth; // Nivel del ítem al crear la fila
+        boolean childrenShown; // Si las filas de los hijos siguen a esta
+        
+        ItemRow(SideMenuItemPanel panel, Component spacer, int depth) {
+            this.panel = panel;
+            this.spacer = spacer;
+            this.depth = depth;
+        }
+    }
     
     /**
-     * Clase interna nombrada para el ChangeListener
+     * Clase interna nombrada para el listener del modelo
      * Esto evita problemas de serialización con clases anónimas
      */
-    private class ModelChangeListener implements ChangeListener, Serializable {
+    private class ModelChangeListener implements SideMenuModelListener, Serializable {
         @Override
-        public void stateChanged(ChangeEvent e) {
-            updateMenuItems();
+        public void itemsInserted(SideMenuModelEvent e) {
+            syncRows(e);
+        }
+
+        @Override
+        public void itemsRemoved(SideMenuModelEvent e) {
+            syncRows(e);
+        }
+
+        @Override
+        public void itemsMoved(SideMenuModelEvent e) {
+            syncRows(e);
+        }
+
+        @Override
+        public void itemsChanged(SideMenuModelEvent e) {
+            if (!canSyncRows()) {
+                // Si solo cambió el contenido de ítems ya mostrados, basta con refrescar sus paneles
+                for (SideMenuItem item : e.getItems()) {
+                    if (!refreshItemPanel(item)) {
+                        scheduleMenuUpdate();
+                        return;
+                    }
+                }
+                return;
+            }
+            syncRows(e);
         }
     }
     
     /**
-    * Clase interna nombrada para el ExpandCollapseListener
-    * Esto evita problemas de serialización con expresiones lambda
-    */
-    private class ItemExpandCollapseListener implements SideMenuItemPanel.ExpandCollapseListener, Serializable {
+     * Clase interna nombrada que aplica cada cuadro de la animación de ancho
+     */
+    private class ResizeFrameListener implements SideMenuAnimator.FrameListener, Serializable {
         @Override
-        public void onExpandCollapse(SideMenuItem item) {
-            updateMenuItems();
+        public void animationFrame(double value) {
+            applyWidth((int) Math.round(value));
+            if (!resizeAnimator.isRunning()) {
+                endTransition();
+            }
+        }
+    }
+    
+    /**
+     * Clase interna nombrada que detecta el cambio de pantalla (y de escala)
+     */
+    private class GraphicsConfigurationListener implements PropertyChangeListener, Serializable {
+        @Override
+        public void propertyChange(PropertyChangeEvent evt) {
+            SwingUtilities.invokeLater(SideMenuComponent.this::updateDeviceScale);
+        }
+    }
+    
+    /**
+     * Acción del atajo Ctrl+K
+     */
+    private class ShowCommandPaletteAction extends AbstractAction {
+        @Override
+        public void actionPerformed(ActionEvent e) {
+            showCommandPalette();
+        }
+    }
+    
+    /**
+     * Clase interna nombrada que aplica el filtro con cada tecla
+     */
+    private class FilterDocumentListener implements DocumentListener, Serializable {
+        @Override
+        public void insertUpdate(DocumentEvent e) {
+            setFilterText(filterField.getText());
+        }
+        
+        @Override
+        public void removeUpdate(DocumentEvent e) {
+            setFilterText(filterField.getText());
+        }
+        
+        @Override
+        public void changedUpdate(DocumentEvent e) {
         }
     }
     
@@ -77,6 +237,7 @@ public class SideMenuComponent extends JPanel implements Serializable {
         setupLayout();
         setupEventListeners();
         setupModelListener();
+        addPropertyChangeListener("graphicsConfiguration", new GraphicsConfigurationListener());
         updateLogo(); // Actualizar logo inicial
     }
     
@@ -89,7 +250,7 @@ public class SideMenuComponent extends JPanel implements Serializable {
         // Panel superior (header) - usa el mismo backgroundColor
         headerPanel = new JPanel(new BorderLayout());
         headerPanel.setOpaque(false); // Clave para transparencia
-        headerPanel.setPreferredSize(new Dimension(collapsedWidth, 60));
+        headerPanel.setPreferredSize(new Dimension(collapsedWidth, HEADER_HEIGHT));
         
         // Logo (inicialmente oculto)
         logoLabel = new JLabel(logoText, SwingConstants.LEFT);
@@ -116,6 +277,7 @@ public class SideMenuComponent extends JPanel implements Serializable {
         contentPanel = new JPanel();
         contentPanel.setOpaque(false); // Clave para transparencia
         contentPanel.setLayout(new BoxLayout(contentPanel, BoxLayout.Y_AXIS));
+        contentLayer = new JLayer<>(contentPanel, new SideMenuHoverTracker(this));
         
         SideMenuItem item = new SideMenuItem("Inicio", "/icons/home.png");
         item.setTooltip("Ir a Inicio");
@@ -142,7 +304,7 @@ public class SideMenuComponent extends JPanel implements Serializable {
         
         // Agregar componentes principales
         add(headerPanel, BorderLayout.NORTH);
-        add(contentPanel, BorderLayout.CENTER);
+        add(contentLayer, BorderLayout.CENTER);
         
         updateLayout();
     }
@@ -166,57 +328,531 @@ public class SideMenuComponent extends JPanel implements Serializable {
         });
     }
     
+    /**
+     * Sincroniza el contenido con el modelo reutilizando los paneles existentes.
+     * Solo se crean, eliminan, mueven o refrescan los paneles de los ítems que
+     * realmente cambiaron, en lugar de reconstruir todo el menú.
+     */
     private void updateMenuItems() {
         try {
-            contentPanel.removeAll();
-
             if (model == null) return; // Protección contra modelo nulo
 
-            // Usar un método recursivo para mostrar items con jerarquía
-            for (SideMenuItem item : model.getItems()) {
+            // Lista plana de los ítems que deben mostrarse, en orden, tomada de
+            // una copia consistente aunque otro hilo esté modificando el modelo
+            List<SideMenuItem> visibleItems = new ArrayList<>();
+            Set<SideMenuItem> filterAncestors = (filterTerms != null) ? getFilterAncestors() : null;
+            for (SideMenuModelSnapshot.Node node : model.getSnapshot().getItems()) {
                 try {
-                    if (item.isShown()) {
-                    addMenuItemToPanel(item, contentPanel);
+                    if (!node.isShown()) {
+                        continue;
+                    }
+                    if (filterAncestors != null) {
+                        collectFilteredItems(node, visibleItems, filterAncestors);
+                    } else {
+                        collectVisibleItems(node, visibleItems);
                     }
                 } catch (Exception itemEx) {
                     System.err.println("Error procesando ítem: " + itemEx.getMessage());
                 }
             }
 
-            // Agregar espacio flexible al final
-            contentPanel.add(Box.createVerticalGlue());
+            if (flyweightRendering) {
+                cellView.setRows(visibleItems);
+                return;
+            }
+            if (virtualized) {
+                virtualPanel.setRows(visibleItems);
+                return;
+            }
 
-            revalidate();
-            repaint();
+            boolean changed = removeStaleRows(visibleItems);
+
+            // Insertar o mover solo los paneles que no están en su posición
+            for (int i = 0; i < visibleItems.size(); i++) {
+                SideMenuItem item = visibleItems.get(i);
+                ItemRow row = itemRows.get(item);
+                int position = i * 2;
+
+                if (row != null && row.depth != item.getLevel()) {
+                    // Cambió de padre: la fila se crea de nuevo con su nivel actual
+                    contentPanel.remove(row.panel);
+                    contentPanel.remove(row.spacer);
+                    row = null;
+                }
+                if (row == null) {
+                    row = createItemRow(item);
+                    itemRows.put(item, row);
+                    contentPanel.add(row.panel, position);
+                    contentPanel.add(row.spacer, position + 1);
+                    changed = true;
+                } else {
+                    if (contentPanel.getComponent(position) != row.panel) {
+                        contentPanel.remove(row.panel);
+                        contentPanel.remove(row.spacer);
+                        contentPanel.add(row.panel, position);
+                        contentPanel.add(row.spacer, position + 1);
+                        changed = true;
+                    }
+                }
+                row.childrenShown = i + 1 < visibleItems.size() && visibleItems.get(i + 1).getParent() == item;
+            }
+
+            // Espacio flexible al final
+            if (verticalGlue == null) {
+                verticalGlue = Box.createVerticalGlue();
+                contentPanel.add(verticalGlue);
+                changed = true;
+            }
+
+            if (changed) {
+                revalidate();
+                repaint();
+            }
+        } catch (Exception ex) {
+            System.err.println("Error actualizando ítems de menú: " + ex.getMessage());
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        // Los paneles deserializados se descartan y se crean de nuevo
+        itemRows = new IdentityHashMap<>();
+        discardItemRows();
+        menuUpdatePending = false;
+        scheduleMenuUpdate();
+    }
+
+    /**
+     * Programa una única actualización del menú para todos los cambios
+     * recibidos en el mismo ciclo del EDT
+     */
+    private void scheduleMenuUpdate() {
+        if (!menuUpdatePending) {
+            menuUpdatePending = true;
+            SwingUtilities.invokeLater(() -> {
+                menuUpdatePending = false;
+                updateMenuItems();
+            });
+        }
+    }
+
+    /**
+     * Refresca solo el panel de un ítem cuyo cambio no altera la estructura
+     * del menú
+     * @return false si el cambio requiere actualizar la lista de ítems
+     */
+    private boolean refreshItemPanel(SideMenuItem item) {
+        if (flyweightRendering) {
+            return filterTerms == null && item.isShown() && !item.isHasChildren() && cellView.repaintItem(item);
+        }
+        if (virtualized) {
+            return false;
+        }
+        ItemRow row = itemRows.get(item);
+        if (row != null) {
+            row.panel.refreshIfChanged();
+        }
+        // Con filtro, el cambio puede afectar a las coincidencias
+        return filterTerms == null && row != null && item.isShown() && !item.isHasChildren();
+    }
+
+    /**
+     * true si las filas de los paneles se pueden ajustar evento a evento; con
+     * filtro, en los modos virtualizado y de pintado directo, o con una
+     * actualización completa pendiente, se recalcula la lista entera
+     */
+    private boolean canSyncRows() {
+        return filterTerms == null && !flyweightRendering && !virtualized && !menuUpdatePending;
+    }
+
+    /**
+     * Ajusta solo las filas que afecta un evento: las de los hijos del padre
+     * del evento, o las del ítem que cambió
+     */
+    private void syncRows(SideMenuModelEvent e) {
+        if (!canSyncRows()) {
+            scheduleMenuUpdate();
+            return;
+        }
+        try {
+            boolean changed = false;
+            if (e.getType() == SideMenuModelEvent.Type.CHANGED) {
+                for (SideMenuItem item : e.getItems()) {
+                    changed |= syncItem(item);
+                }
+            } else {
+                changed = syncChildren(e.getParent());
+            }
+            if (changed) {
+                revalidate();
+                repaint();
+            }
         } catch (Exception ex) {
             System.err.println("Error actualizando ítems de menú: " + ex.getMessage());
+            discardItemRows();
+            scheduleMenuUpdate();
+        }
+    }
+
+    /**
+     * Refresca el panel de un ítem y, si cambió lo que muestra (visible o
+     * desplegado), las filas de sus hijos o de sus hermanos
+     * @return true si se añadieron, movieron o quitaron filas
+     */
+    private boolean syncItem(SideMenuItem item) {
+        if (item.getModel() != model) {
+            return false;
+        }
+        ItemRow row = itemRows.get(item);
+        if (item.getParent() == null && item.isShown() != (row != null)) {
+            return syncChildren(null);
+        }
+        if (row == null) {
+            return false;
+        }
+        row.panel.refreshIfChanged();
+        return row.childrenShown != showsChildren(item) && syncChildren(item);
+    }
+
+    private static boolean showsChildren(SideMenuItem item) {
+        return item.isHasChildren() && item.isExpanded();
+    }
+
+    /**
+     * Hace que las filas de los hijos de un ítem (null = nivel superior)
+     * sigan el orden actual de sus hijos. Solo se recorren esos hijos: las
+     * filas que ya están en su lugar se conservan, las demás se mueven, se
+     * crean o se quitan. Los eventos de otros hilos pueden llegar
+     * desordenados respecto a un lote, así que se compara con el estado
+     * actual del modelo y no con los índices del evento.
+     * @return true si se añadieron, movieron o quitaron filas
+     */
+    private boolean syncChildren(SideMenuItem parent) {
+        int position = 0;
+        int depth = -1;
+        List<SideMenuItem> children = model.itemsView();
+        if (parent != null) {
+            ItemRow parentRow = itemRows.get(parent);
+            if (parent.getModel() != model || parentRow == null) {
+                return false; // El padre no se muestra
+            }
+            parentRow.panel.refreshIfChanged(); // Puede ganar o perder el indicador de hijos
+            parentRow.childrenShown = showsChildren(parent);
+            position = contentPanel.getComponentZOrder(parentRow.panel) + 2;
+            depth = parentRow.depth;
+            children = parentRow.childrenShown ? parent.childList() : Collections.emptyList();
+        }
+
+        boolean changed = false;
+        for (SideMenuItem child : children) {
+            if (parent == null && !child.isShown()) {
+                continue;
+            }
+            ItemRow row = itemRows.get(child);
+            boolean sameDepth = row != null && row.depth == depth + 1;
+            if (sameDepth && position < contentPanel.getComponentCount() && contentPanel.getComponent(position) == row.panel) {
+                position = subtreeEnd(position, row.depth);
+                continue;
+            }
+            if (sameDepth) {
+                position = moveRows(row, position);
+            } else {
+                if (row != null) {
+                    position = removeRows(row, position); // Cambió de nivel: se crea de nuevo
+                }
+                position = insertRows(child, position);
+            }
+            changed = true;
+        }
+
+        // Filas de hijos que ya no están (o que ya no se muestran)
+        int end = position;
+        while (end < contentPanel.getComponentCount() && isDescendantRow(contentPanel.getComponent(end), depth)) {
+            end += 2;
+        }
+        if (end > position) {
+            removeRange(position, end);
+            changed = true;
+        }
+        return changed;
+    }
+
+    /**
+     * Crea las filas de un ítem y de sus hijos desplegados a partir de una posición
+     * @return la posición que sigue a la última fila creada
+     */
+    private int insertRows(SideMenuItem item, int position) {
+        ItemRow row = createItemRow(item);
+        row.childrenShown = showsChildren(item);
+        itemRows.put(item, row);
+        contentPanel.add(row.panel, position++);
+        contentPanel.add(row.spacer, position++);
+        if (row.childrenShown) {
+            for (SideMenuItem child : item.childList()) {
+                position = insertRows(child, position);
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Lleva la fila de un ítem, con las de sus hijos, a una posición
+     * @return la posición que sigue a las filas movidas
+     */
+    private int moveRows(ItemRow row, int position) {
+        int start = contentPanel.getComponentZOrder(row.panel);
+        int end = subtreeEnd(start, row.depth);
+        List<Component> block = new ArrayList<>(Arrays.asList(contentPanel.getComponents()).subList(start, end));
+        for (int i = end - 1; i >= start; i--) {
+            contentPanel.remove(i);
+        }
+        if (start < position) {
+            position -= end - start;
+        }
+        for (Component component : block) {
+            contentPanel.add(component, position++);
+        }
+        return position;
+    }
+
+    /**
+     * Quita la fila de un ítem y las de sus hijos
+     * @return la posición dada, desplazada si las filas quitadas estaban antes
+     */
+    private int removeRows(ItemRow row, int position) {
+        int start = contentPanel.getComponentZOrder(row.panel);
+        int end = subtreeEnd(start, row.depth);
+        removeRange(start, end);
+        return (start < position) ? position - (end - start) : position;
+    }
+
+    // Fin (exclusivo) de las filas de los descendientes que siguen a la fila de la posición dada
+    private int subtreeEnd(int position, int depth) {
+        int end = position + 2;
+        while (end < contentPanel.getComponentCount() && isDescendantRow(contentPanel.getComponent(end), depth)) {
+            end += 2;
+        }
+        return end;
+    }
+
+    private boolean isDescendantRow(Component component, int depth) {
+        if (!(component instanceof SideMenuItemPanel)) {
+            return false; // Espacio flexible del final
+        }
+        ItemRow row = itemRows.get(((SideMenuItemPanel) component).getMenuItem());
+        return row != null && row.depth > depth;
+    }
+
+    private void removeRange(int start, int end) {
+        for (int i = end - 1; i >= start; i--) {
+            Component component = contentPanel.getComponent(i);
+            if (component instanceof SideMenuItemPanel) {
+                itemRows.remove(((SideMenuItemPanel) component).getMenuItem());
+                if (component == hoveredPanel) {
+                    hoveredPanel = null;
+                }
+            }
+            contentPanel.remove(i);
+        }
+    }
+
+    // Método recursivo para obtener los ítems visibles y sus hijos expandidos
+    private void collectVisibleItems(SideMenuModelSnapshot.Node node, List<SideMenuItem> visibleItems) {
+        visibleItems.add(node.getItem());
+
+        // Si tiene hijos y está expandido, mostrar los hijos
+        if (node.isHasChildren() && node.isExpanded()) {
+            for (SideMenuModelSnapshot.Node child : node.getChildren()) {
+                collectVisibleItems(child, visibleItems);
+            }
+        }
+    }
+
+    /**
+     * Con un filtro activo solo se muestran los ítems que coinciden y sus
+     * ancestros, que se muestran expandidos sin cambiar el estado del ítem
+     */
+    private void collectFilteredItems(SideMenuModelSnapshot.Node node, List<SideMenuItem> visibleItems,
+            Set<SideMenuItem> ancestors) {
+        SideMenuItem item = node.getItem();
+        boolean ancestor = ancestors.contains(item);
+        if (!ancestor && !filterMatches.contains(item)) {
+            return;
+        }
+        visibleItems.add(item);
+        if (ancestor) {
+            for (SideMenuModelSnapshot.Node child : node.getChildren()) {
+                collectFilteredItems(child, visibleItems, ancestors);
+            }
+        }
+    }
+    
+    /**
+     * Ancestros de los ítems que coinciden con el filtro; antes vuelve a
+     * consultar el índice si el modelo cambió desde la última consulta
+     */
+    private Set<SideMenuItem> getFilterAncestors() {
+        if (filterMatches == null || filterVersion != model.getVersion()) {
+            queryFilterMatches();
+        }
+        Set<SideMenuItem> ancestors = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (SideMenuItem item : filterMatches) {
+            for (SideMenuItem parent = item.getParent(); parent != null && ancestors.add(parent); parent = parent.getParent()) {
+                // Se detiene al llegar a un ancestro ya agregado
+            }
+        }
+        return ancestors;
+    }
+    
+    private void queryFilterMatches() {
+        filterVersion = model.getVersion(); // Antes de consultar: un cambio posterior obliga a repetirla
+        filterMatches = Collections.newSetFromMap(new IdentityHashMap<>());
+        filterMatches.addAll(model.findItemsByPrefix(filterText));
+    }
+    
+    /**
+     * Aplica el texto del filtro. Si la consulta nueva solo restringe la
+     * anterior (se agregaron letras o términos), se filtra el resultado
+     * anterior en lugar de consultar el índice de nuevo. El menú se
+     * actualiza una sola vez por ciclo del EDT.
+     */
+    private void applyFilter() {
+        List<String> terms = SideMenuPrefixTrie.words(filterText);
+        if (terms.isEmpty()) {
+            if (filterTerms == null) return;
+            filterTerms = null;
+            filterMatches = null;
+        } else if (filterMatches != null && filterVersion == model.getVersion() && narrows(filterTerms, terms)) {
+            Set<SideMenuItem> narrowed = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (SideMenuItem item : filterMatches) {
+                if (SideMenuPrefixTrie.matches(item.getText(), terms)) {
+                    narrowed.add(item);
+                }
+            }
+            filterMatches = narrowed;
+            filterTerms = terms;
+        } else {
+            filterTerms = terms;
+            queryFilterMatches();
+        }
+        scheduleMenuUpdate();
+    }
+    
+    // true si todo ítem que coincide con los términos nuevos coincidía con los anteriores
+    private static boolean narrows(List<String> previous, List<String> terms) {
+        if (previous == null) return false;
+        for (String old : previous) {
+            boolean covered = false;
+            for (String term : terms) {
+                if (term.startsWith(old)) {
+                    covered = true;
+                    break;
+                }
+            }
+            if (!covered) return false;
+        }
+        return true;
+    }
+    
+    /**
+     * Muestra u oculta el campo de filtro según la propiedad y el estado del
+     * menú (solo cabe con el menú expandido)
+     */
+    private void updateFilterField() {
+        boolean shown = filterVisible && expanded;
+        if (shown && filterField == null) {
+            filterField = new JTextField(filterText);
+            filterField.setOpaque(false);
+            filterField.setToolTipText("Filtrar opciones");
+            filterField.getDocument().addDocumentListener(new FilterDocumentListener());
+        }
+        if (filterField != null) {
+            filterField.setFont(opcionesFont);
+            filterField.setForeground(textColor);
+            filterField.setCaretColor(textColor);
+            filterField.setBorder(BorderFactory.createCompoundBorder(new EmptyBorder(0, 10, 6, 10),
+                    BorderFactory.createCompoundBorder(new MatteBorder(0, 0, 1, 0, textColor), new EmptyBorder(2, 2, 2, 2))));
+            if (shown && filterField.getParent() != headerPanel) {
+                headerPanel.add(filterField, BorderLayout.SOUTH);
+            } else if (!shown && filterField.getParent() == headerPanel) {
+                headerPanel.remove(filterField);
+            }
         }
+        headerPanel.setPreferredSize(new Dimension(headerPanel.getPreferredSize().width, getHeaderHeight()));
     }
     
-    // Método recursivo para añadir items y sus hijos
-    private void addMenuItemToPanel(SideMenuItem item, JPanel parentPanel) {
-        // Crear el panel para este ítem
+    private int getHeaderHeight() {
+        if (filterField != null && filterField.getParent() == headerPanel) {
+            return HEADER_HEIGHT + filterField.getPreferredSize().height;
+        }
+        return HEADER_HEIGHT;
+    }
+    
+    /**
+     * Quita del panel los ítems que ya no deben mostrarse
+     * @return true si se eliminó algún panel
+     */
+    private boolean removeStaleRows(List<SideMenuItem> visibleItems) {
+        if (itemRows.size() <= visibleItems.size() && itemRows.keySet().containsAll(visibleItems)) {
+            return false;
+        }
+
+        Set<SideMenuItem> visible = Collections.newSetFromMap(new IdentityHashMap<>());
+        visible.addAll(visibleItems);
+
+        boolean removed = false;
+        Iterator<Map.Entry<SideMenuItem, ItemRow>> it = itemRows.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<SideMenuItem, ItemRow> entry = it.next();
+            if (!visible.contains(entry.getKey())) {
+                if (entry.getValue().panel == hoveredPanel) {
+                    hoveredPanel = null;
+                }
+                contentPanel.remove(entry.getValue().panel);
+                contentPanel.remove(entry.getValue().spacer);
+                it.remove();
+                removed = true;
+            }
+        }
+        return removed;
+    }
+
+    // Crea el panel (y su espaciado) para un ítem
+    private ItemRow createItemRow(SideMenuItem item) {
+        return new ItemRow(createItemPanel(item), Box.createVerticalStrut(2), item.getLevel()); // Pequeño espaciado
+    }
+
+    // Crea y configura el panel de un ítem
+    private SideMenuItemPanel createItemPanel(SideMenuItem item) {
         SideMenuItemPanel itemPanel = 
                 (preferredHeight == 0) ? new SideMenuItemPanel(item, collapsedWidth) : new SideMenuItemPanel(item, collapsedWidth, preferredHeight);
         itemPanel.setOpcionesFont(opcionesFont);
         itemPanel.setHoverColor(hoverColor);
         itemPanel.setTextHoverColor(textHoverColor);
         itemPanel.setTextColor(textColor);
+        itemPanel.setAsyncIconLoading(asyncIconLoading);
+        itemPanel.setDeviceScale(deviceScale);
 
         // Informar al panel si el menú está expandido o no
         itemPanel.updateMenuExpandedState(expanded);
 
-        // Establecer listener para expansión/colapso usando la clase nombrada
-        itemPanel.setExpandCollapseListener(new ItemExpandCollapseListener());
-
-        parentPanel.add(itemPanel);
-        parentPanel.add(Box.createVerticalStrut(2)); // Pequeño espaciado
+        return itemPanel;
+    }
 
-        // Si tiene hijos y está expandido, mostrar los hijos
-        if (item.isHasChildren() && item.isExpanded()) {
-            for (SideMenuItem child : item.getChildren()) {
-                addMenuItemToPanel(child, parentPanel);
-            }
+    /**
+     * Descarta todos los paneles para que se vuelvan a crear con las
+     * propiedades visuales actuales (fuente, colores, alto, ancho)
+     */
+    private void discardItemRows() {
+        hoveredPanel = null;
+        itemRows.clear();
+        verticalGlue = null;
+        contentPanel.removeAll();
+        if (virtualPanel != null) {
+            virtualPanel.discardPanels();
+        }
+        if (cellView != null) {
+            cellView.resetRowHeight();
         }
     }
     
@@ -245,38 +881,15 @@ public class SideMenuComponent extends JPanel implements Serializable {
     public SideMenuItem getMenuItem(String text) {
         if (model == null) return null;
 
-        // Buscar en todos los ítems de nivel superior y sus hijos
-        for (SideMenuItem item : model.getItems()) {
-            SideMenuItem found = findItemByTextRecursive(item, text);
-            if (found != null) return found;
-        }
-        return null;
-    }
-
-   /**
-    * Método recursivo para buscar un ítem por texto.
-    */
-    private SideMenuItem findItemByTextRecursive(SideMenuItem current, String text) {
-        // Verificar si este es el ítem que buscamos
-        if (text.equals(current.getText())) {
-            return current;
-        }
-
-        // Buscar en los hijos si los tiene
-        if (current.isHasChildren()) {
-            for (SideMenuItem child : current.getChildren()) {
-                SideMenuItem found = findItemByTextRecursive(child, text);
-                if (found != null) return found;
-            }
-        }
-
-        return null;
+        // Búsqueda en el índice del modelo, sin recorrer el árbol
+        return model.findItemByText(text);
     }
     
     /**
     * Método toggleMenu modificado para actualizar el estado de expansión
     */
     private void toggleMenu() {
+        beginTransition();
         expanded = !expanded;
         updateLayout();
         updateItemsExpandedState(); // Actualizar estado de expansión en los ítems
@@ -293,6 +906,12 @@ public class SideMenuComponent extends JPanel implements Serializable {
                 ((SideMenuItemPanel) comp).updateMenuExpandedState(expanded);
             }
         }
+        if (virtualPanel != null) {
+            virtualPanel.forEachPanel(panel -> panel.updateMenuExpandedState(expanded));
+        }
+        if (cellView != null) {
+            cellView.repaint();
+        }
     }
     
     private void updateLayout() {
@@ -317,81 +936,208 @@ public class SideMenuComponent extends JPanel implements Serializable {
             // Ajustar padding del botón
             toggleButton.setBorder(new EmptyBorder(10, 10, 10, 10));
         }
+        updateFilterField();
         
         revalidate();
         repaint();
     }
     
+    /**
+     * Anima el ancho hacia el estado actual. Si ya hay una animación en curso
+     * se redirige desde el ancho actual, con una duración proporcional a la
+     * distancia restante.
+     */
     private void animateResize() {
-        Timer timer = new Timer(10, null);
         final int targetWidth = expanded ? expandedWidth : collapsedWidth;
-        final int currentWidth = getPreferredSize().width;
-        final int step = (targetWidth - currentWidth) / 10;
+        if (!resizeAnimator.isRunning()) {
+            resizeAnimator.reset(getPreferredSize().width);
+        }
         
-        timer.addActionListener(e -> {
-            int newWidth = getPreferredSize().width + step;
-            
-            if ((step > 0 && newWidth >= targetWidth) || (step < 0 && newWidth <= targetWidth)) {
-                newWidth = targetWidth;
-                timer.stop();
-            }
-            
-            setPreferredSize(new Dimension(newWidth, getPreferredSize().height));
-            headerPanel.setPreferredSize(new Dimension(newWidth, 60));
-            
-            Container parent = getParent();
-            if (parent != null) {
-                parent.revalidate();
-                parent.repaint();
-            }
-        });
+        captureTransitionTarget(targetWidth);
         
-        timer.start();
+        int range = Math.abs(expandedWidth - collapsedWidth);
+        double distance = Math.abs(targetWidth - resizeAnimator.getValue());
+        int duration = range == 0 ? 0 : (int) Math.round(animationDuration * Math.min(1.0, distance / range));
+        resizeAnimator.animateTo(targetWidth, duration);
     }
     
     /**
-     * Crea iconos por defecto usando gráficos vectoriales
+     * Captura el contenido tal como se ve antes de cambiar de estado. Si ya
+     * hay una transición en curso solo se invierten las capturas.
      */
-    private void createDefaultIcons() {
-        // Crear icono hamburger
-        closeIcon = hamburgerIcon = createHamburgerIcon(24, defaultHamburgerIconColor);
+    private void beginTransition() {
+        if (!snapshotTransitions || getWidth() <= 0 || getHeight() <= 0) return;
+        
+        if (transitionTo != null) {
+            SideMenuSnapshot previous = transitionFrom;
+            transitionFrom = transitionTo;
+            transitionTo = previous;
+            transitionReversed = true;
+            return;
+        }
+        
+        validate();
+        transitionFrom = captureChildren();
     }
     
     /**
-     * Crea un icono de hamburger (3 barras horizontales)
+     * Dispone los hijos una sola vez en el ancho final, los captura y congela
+     * la disposición hasta que termine la animación
      */
-    private ImageIcon createHamburgerIcon(int size, Color color) {
-        return new ImageIcon(createIconImage(size, color, "hamburger"));
+    private void captureTransitionTarget(int targetWidth) {
+        if (transitionFrom == null) return;
+        if (transitionReversed) {
+            transitionReversed = false;
+            return;
+        }
+        
+        int width = getWidth();
+        int height = getHeight();
+        setSize(targetWidth, height);
+        validate();
+        transitionTo = captureChildren();
+        layoutFrozen = true;
+        setSize(width, height);
     }
     
     /**
-     * Crea una imagen de icono vectorial
+     * Descarta las capturas y hace la única disposición real en el ancho final
      */
-    private java.awt.image.BufferedImage createIconImage(int size, Color color, String type) {
-        java.awt.image.BufferedImage img = new java.awt.image.BufferedImage(size, size, java.awt.image.BufferedImage.TYPE_INT_ARGB);
-        Graphics2D g2d = img.createGraphics();
+    private void endTransition() {
+        if (transitionFrom == null && !layoutFrozen) return;
         
-        // Anti-aliasing
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        g2d.setColor(color);
-        g2d.setStroke(new BasicStroke(2.0f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+        if (transitionFrom != null) transitionFrom.flush();
+        if (transitionTo != null) transitionTo.flush();
+        transitionFrom = null;
+        transitionTo = null;
+        transitionReversed = false;
+        layoutFrozen = false;
+        revalidate();
+        repaint();
+    }
+    
+    /**
+     * Pinta los hijos en una imagen a la resolución del dispositivo
+     */
+    private SideMenuSnapshot captureChildren() {
+        int width = getWidth();
+        int height = getHeight();
+        GraphicsConfiguration gc = getGraphicsConfiguration();
+        double scaleX = 1.0;
+        double scaleY = 1.0;
+        if (gc != null) {
+            scaleX = gc.getDefaultTransform().getScaleX();
+            scaleY = gc.getDefaultTransform().getScaleY();
+        }
         
-        if ("hamburger".equals(type)) {
-            // Dibujar 3 líneas horizontales
-            int lineWidth = size - 6;
-            int startX = 3;
-            int line1Y = size / 4;
-            int line2Y = size / 2;
-            int line3Y = (size * 3) / 4;
-            
-            g2d.drawLine(startX, line1Y, startX + lineWidth, line1Y);
-            g2d.drawLine(startX, line2Y, startX + lineWidth, line2Y);
-            g2d.drawLine(startX, line3Y, startX + lineWidth, line3Y);
-            
+        BufferedImage image = new BufferedImage(
+                (int) Math.ceil(width * scaleX), (int) Math.ceil(height * scaleY), BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g2d = image.createGraphics();
+        g2d.scale(scaleX, scaleY);
+        g2d.setClip(0, 0, width, height);
+        super.paintChildren(g2d);
+        g2d.dispose();
+        return new SideMenuSnapshot(image, width, height);
+    }
+    
+    private boolean isTransitionActive() {
+        return transitionFrom != null && transitionTo != null;
+    }
+    
+    @Override
+    public void doLayout() {
+        // Durante la transición se conserva la disposición del ancho final
+        if (!layoutFrozen) {
+            super.doLayout();
+        }
+    }
+    
+    @Override
+    protected void paintChildren(Graphics g) {
+        if (!isTransitionActive()) {
+            super.paintChildren(g);
+        } else {
+            paintTransition(g);
+        }
+        if (loading) {
+            paintLoadingState(g);
+        }
+    }
+    
+    private void paintTransition(Graphics g) {
+        Graphics2D g2d = (Graphics2D) g.create();
+        if (!transitionAntialiasing) {
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+            g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+            g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_SPEED);
+        } else {
+            g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
         }
+        g2d.clipRect(0, 0, getWidth(), getHeight());
+        
+        // Fundido entre la captura inicial y la final según el ancho actual
+        int fromWidth = transitionFrom.getWidth();
+        int toWidth = transitionTo.getWidth();
+        float progress = fromWidth == toWidth ? 1f
+                : Math.max(0f, Math.min(1f, (float) (getWidth() - fromWidth) / (toWidth - fromWidth)));
+        
+        GraphicsConfiguration gc = getGraphicsConfiguration();
+        transitionFrom.draw(g2d, gc);
+        g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, progress));
+        transitionTo.draw(g2d, gc);
+        g2d.dispose();
+    }
+    
+    /**
+     * Indicador de carga: atenúa el contenido y muestra el texto de carga
+     * (o "..." si el menú está colapsado y no cabe)
+     */
+    private void paintLoadingState(Graphics g) {
+        Rectangle area = contentLayer.getBounds();
+        if (area.isEmpty()) return;
         
+        Graphics2D g2d = (Graphics2D) g.create();
+        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g2d.setColor(new Color(backgroundColor.getRed(), backgroundColor.getGreen(), backgroundColor.getBlue(), 160));
+        g2d.fillRect(area.x, area.y, area.width, area.height);
+        
+        g2d.setFont(opcionesFont);
+        g2d.setColor(textColor);
+        FontMetrics fm = g2d.getFontMetrics();
+        String text = loadingText != null && fm.stringWidth(loadingText) <= area.width - 10 ? loadingText : "...";
+        g2d.drawString(text, area.x + (area.width - fm.stringWidth(text)) / 2, area.y + 20 + fm.getAscent());
         g2d.dispose();
-        return img;
+    }
+    
+    /**
+     * Aplica un ancho al componente; solo revalida si el ancho cambió
+     */
+    private void applyWidth(int newWidth) {
+        if (newWidth == getPreferredSize().width) return;
+        
+        setPreferredSize(new Dimension(newWidth, getPreferredSize().height));
+        headerPanel.setPreferredSize(new Dimension(newWidth, getHeaderHeight()));
+        
+        Container parent = getParent();
+        if (parent != null) {
+            parent.revalidate();
+            parent.repaint();
+        }
+    }
+    
+    /**
+     * Crea iconos por defecto usando gráficos vectoriales
+     */
+    private void createDefaultIcons() {
+        // Crear icono hamburger
+        closeIcon = hamburgerIcon = createHamburgerIcon(24, defaultHamburgerIconColor);
+    }
+    
+    /**
+     * Obtiene el icono de hamburger (3 barras horizontales) de la caché compartida
+     */
+    private ImageIcon createHamburgerIcon(int size, Color color) {
+        return SideMenuIconAtlas.get(SideMenuIconAtlas.Kind.HAMBURGER, size, color, deviceScale);
     }
     
     /**
@@ -439,8 +1185,10 @@ public class SideMenuComponent extends JPanel implements Serializable {
         // No llamar a super.paintComponent() para evitar pintar el fondo automáticamente
         Graphics2D g2d = (Graphics2D) g.create();
         
-        // Anti-aliasing para bordes suaves
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        // Anti-aliasing para bordes suaves (opcional durante la transición)
+        if (!isTransitionActive() || transitionAntialiasing) {
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        }
         
         // Dibujar fondo con bordes redondeados usando backgroundColor
         g2d.setColor(backgroundColor);
@@ -455,18 +1203,57 @@ public class SideMenuComponent extends JPanel implements Serializable {
         if (icon instanceof ImageIcon) {
             imageIcon = (ImageIcon) icon;
         } else {
-            // Si no es ImageIcon, convertirlo a BufferedImage primero
+            // Si no es ImageIcon, dibujarlo a la resolución de la pantalla
             BufferedImage bufferedImage = new BufferedImage(
-                icon.getIconWidth(), icon.getIconHeight(), BufferedImage.TYPE_INT_ARGB);
+                (int) Math.ceil(icon.getIconWidth() * deviceScale),
+                (int) Math.ceil(icon.getIconHeight() * deviceScale), BufferedImage.TYPE_INT_ARGB);
             Graphics2D g2d = bufferedImage.createGraphics();
+            g2d.scale(deviceScale, deviceScale);
             icon.paintIcon(null, g2d, 0, 0);
             g2d.dispose();
             imageIcon = new ImageIcon(bufferedImage);
         }
 
-        // Tu método exacto
-        Image img = imageIcon.getImage().getScaledInstance(width, height, Image.SCALE_SMOOTH);
-        return new ImageIcon(img);
+        // Tamaño lógico width x height con la variante para la escala actual
+        return SideMenuIconCache.createMultiResolutionIcon(imageIcon.getImage(), width, height, deviceScale);
+    }
+    
+    /**
+     * Escala de la pantalla con la que se rasterizan los iconos
+     */
+    double getDeviceScale() {
+        return deviceScale;
+    }
+    
+    /**
+     * Vuelve a generar los iconos solo si la escala de la pantalla cambió
+     */
+    private void updateDeviceScale() {
+        double scale = SideMenuIconCache.getDeviceScale(this);
+        if (Double.compare(scale, deviceScale) == 0) return;
+        
+        // Los iconos por defecto se regeneran; los personalizados se conservan
+        boolean defaultHamburger = hamburgerIcon == createHamburgerIcon(24, defaultHamburgerIconColor);
+        boolean defaultClose = closeIcon == createHamburgerIcon(24, defaultHamburgerIconColor);
+        deviceScale = scale;
+        if (defaultHamburger) {
+            hamburgerIcon = createHamburgerIcon(24, defaultHamburgerIconColor);
+        }
+        if (defaultClose) {
+            closeIcon = createHamburgerIcon(24, defaultHamburgerIconColor);
+        }
+        updateToggleButtonIcon();
+        updateLogo();
+        
+        for (ItemRow row : itemRows.values()) {
+            row.panel.setDeviceScale(scale);
+        }
+        if (virtualPanel != null) {
+            virtualPanel.forEachPanel(panel -> panel.setDeviceScale(scale));
+        }
+        if (cellView != null) {
+            cellView.repaint();
+        }
     }
     
     // === MÉTODOS DEL MODELO ===
@@ -483,36 +1270,223 @@ public class SideMenuComponent extends JPanel implements Serializable {
         try {
             if (this.model != null && modelChangeListener != null) {
                 // Remover listener del modelo anterior
-                this.model.removeChangeListener(modelChangeListener);
+                this.model.removeSideMenuModelListener(modelChangeListener);
             }
 
             this.model = (model != null) ? model : new SideMenuModel();
+            filterMatches = null; // Las coincidencias eran del modelo anterior
 
             // Agregar listener al nuevo modelo
             if (modelChangeListener == null) {
                 modelChangeListener = new ModelChangeListener();
             }
-            this.model.addChangeListener(modelChangeListener);
+            this.model.addSideMenuModelListener(modelChangeListener);
 
-            // Actualizar la vista inmediatamente
-            SwingUtilities.invokeLater(() -> {
-                try {
-                    updateMenuItems();
-                    revalidate();
-                    repaint();
-                } catch (Exception ex) {
-                    System.err.println("Error actualizando ítems del menú: " + ex.getMessage());
-                }
-            });
+            // Actualizar la vista; hasta entonces los eventos no ajustan filas sueltas
+            scheduleMenuUpdate();
         } catch (Exception e) {
             System.err.println("Error en setModel: " + e.getMessage());
         }
     }
     
+    /**
+     * Construye el modelo en segundo plano (en un hilo virtual) y lo publica
+     * en el EDT de una sola vez. Mientras tanto se sigue mostrando el modelo
+     * actual con un indicador de carga, y los iconos de los ítems se
+     * decodifican antes de publicar el modelo. Una nueva carga cancela la
+     * anterior, cuyo resultado se descarta.
+     * <p>
+     * Debe llamarse en el EDT, como el resto de la API del componente.
+     * 
+     * @param supplier Construye el modelo; se ejecuta fuera del EDT y puede
+     *                 bloquearse (se interrumpe si la carga se cancela)
+     * @return Se completa en el EDT con el modelo ya publicado, o se cancela
+     *         si otra carga la reemplaza. Cancelarlo cancela la carga.
+     */
+    public CompletableFuture<SideMenuModel> loadModelAsync(Supplier<SideMenuModel> supplier) {
+        if (supplier == null) {
+            throw new IllegalArgumentException("El supplier del modelo no puede ser null");
+        }
+        if (pendingLoad != null) {
+            pendingLoad.cancel(true);
+        }
+        
+        final long generation = ++loadGeneration;
+        final double scale = deviceScale;
+        final CompletableFuture<SideMenuModel> result = new CompletableFuture<>();
+        final Future<?> task = SideMenuExecutors.background().submit(() -> {
+            try {
+                SideMenuModel loaded = supplier.get();
+                if (loaded == null) {
+                    loaded = new SideMenuModel();
+                }
+                preloadIcons(loaded.getSnapshot().getItems(), generation, scale);
+                final SideMenuModel model = loaded;
+                SwingUtilities.invokeLater(() -> publishLoadedModel(generation, model, result));
+            } catch (Exception ex) {
+                SwingUtilities.invokeLater(() -> failLoad(generation, ex, result));
+            }
+        });
+        result.whenComplete((model, ex) -> {
+            if (result.isCancelled()) {
+                task.cancel(true);
+                SwingUtilities.invokeLater(() -> finishLoad(generation));
+            }
+        });
+        
+        pendingLoad = result;
+        setLoading(true);
+        return result;
+    }
+    
+    /**
+     * Decodifica y deja en caché los iconos pendientes; se detiene si la
+     * carga ya no es la actual
+     */
+    private void preloadIcons(List<SideMenuModelSnapshot.Node> nodes, long generation, double scale) {
+        for (SideMenuModelSnapshot.Node node : nodes) {
+            if (generation != loadGeneration || Thread.currentThread().isInterrupted()) {
+                throw new CancellationException();
+            }
+            if (node.getItem().isIconPending()) {
+                SideMenuIconCache.getShared().getScaledIcon(node.getItem(), ITEM_ICON_SIZE, scale);
+            }
+            preloadIcons(node.getChildren(), generation, scale);
+        }
+    }
+    
+    private void publishLoadedModel(long generation, SideMenuModel model, CompletableFuture<SideMenuModel> result) {
+        if (generation != loadGeneration || result.isDone()) return; // Reemplazada o cancelada
+        pendingLoad = null;
+        setModel(model);
+        setLoading(false);
+        result.complete(model);
+    }
+    
+    private void failLoad(long generation, Exception ex, CompletableFuture<SideMenuModel> result) {
+        if (generation == loadGeneration && !result.isDone()) {
+            System.err.println("Error cargando el modelo del menú: " + ex.getMessage());
+            finishLoad(generation);
+        }
+        result.completeExceptionally(ex);
+    }
+    
+    // Quita el indicador si la carga que termina es la actual
+    private void finishLoad(long generation) {
+        if (generation == loadGeneration) {
+            pendingLoad = null;
+            setLoading(false);
+        }
+    }
+    
+    /**
+     * Indica si hay una carga asíncrona del modelo en curso
+     * @see #loadModelAsync(Supplier)
+     */
+    public boolean isLoading() {
+        return loading;
+    }
+    
+    private void setLoading(boolean loading) {
+        if (this.loading != loading) {
+            this.loading = loading;
+            repaint();
+        }
+    }
+    
+    public boolean isFilterVisible() {
+        return filterVisible;
+    }
+    
+    /**
+     * Si es true, con el menú expandido se muestra bajo el encabezado un
+     * campo para filtrar las opciones por texto
+     */
+    public void setFilterVisible(boolean filterVisible) {
+        this.filterVisible = filterVisible;
+        updateFilterField();
+        revalidate();
+        repaint();
+    }
+    
+    public String getFilterText() {
+        return filterText;
+    }
+    
+    /**
+     * Filtra el menú: solo se muestran las opciones con palabras que empiezan
+     * por cada término del texto (sin distinguir mayúsculas ni acentos) y los
+     * ancestros de esas opciones, expandidos. Un texto vacío quita el filtro.
+     * 
+     * @see SideMenuModel#findItemsByPrefix(String)
+     */
+    public void setFilterText(String filterText) {
+        filterText = (filterText != null) ? filterText : "";
+        if (filterText.equals(this.filterText)) return;
+        this.filterText = filterText;
+        if (filterField != null && !filterField.getText().equals(filterText)) {
+            filterField.setText(filterText);
+        }
+        applyFilter();
+    }
+    
+    public boolean isCommandPaletteEnabled() {
+        return commandPaletteEnabled;
+    }
+    
+    /**
+     * Si es true, Ctrl+K en la ventana del menú abre la paleta de comandos
+     * @see #showCommandPalette()
+     */
+    public void setCommandPaletteEnabled(boolean commandPaletteEnabled) {
+        this.commandPaletteEnabled = commandPaletteEnabled;
+        InputMap inputMap = getInputMap(WHEN_IN_FOCUSED_WINDOW);
+        if (commandPaletteEnabled) {
+            inputMap.put(COMMAND_PALETTE_KEY, COMMAND_PALETTE_ACTION);
+            getActionMap().put(COMMAND_PALETTE_ACTION, new ShowCommandPaletteAction());
+        } else {
+            inputMap.remove(COMMAND_PALETTE_KEY);
+            getActionMap().remove(COMMAND_PALETTE_ACTION);
+        }
+    }
+    
+    /**
+     * Paleta de comandos del menú; se crea al primer uso
+     */
+    public SideMenuCommandPalette getCommandPalette() {
+        if (commandPalette == null) {
+            commandPalette = new SideMenuCommandPalette(this);
+        }
+        return commandPalette;
+    }
+    
+    /**
+     * Abre la paleta para buscar y ejecutar cualquier opción del menú
+     */
+    public void showCommandPalette() {
+        getCommandPalette().showPalette();
+    }
+    
+    public String getLoadingText() {
+        return loadingText;
+    }
+    
+    /**
+     * Texto que se muestra sobre el contenido mientras se carga el modelo
+     */
+    public void setLoadingText(String loadingText) {
+        this.loadingText = loadingText;
+        if (loading) {
+            repaint();
+        }
+    }
+    
     private void setupModelListener() {
         // Crear el listener usando la clase nombrada en lugar de una anónima
-        modelChangeListener = new ModelChangeListener();
-        model.addChangeListener(modelChangeListener);
+        if (modelChangeListener == null) {
+            modelChangeListener = new ModelChangeListener();
+            model.addSideMenuModelListener(modelChangeListener);
+        }
     }
     
     public void addMenuItem(String text) {
@@ -559,6 +1533,9 @@ public class SideMenuComponent extends JPanel implements Serializable {
     }
     
     public void setExpanded(boolean expanded) {
+        if (expanded != this.expanded) {
+            beginTransition();
+        }
         this.expanded = expanded;
         updateLayout();
         animateResize();
@@ -571,8 +1548,10 @@ public class SideMenuComponent extends JPanel implements Serializable {
     public void setCollapsedWidth(int collapsedWidth) {
         this.collapsedWidth = collapsedWidth;
         if (!expanded) {
+            resizeAnimator.stop();
             setPreferredSize(new Dimension(collapsedWidth, getPreferredSize().height));
         }
+        discardItemRows();
         updateMenuItems();
     }
     
@@ -583,6 +1562,7 @@ public class SideMenuComponent extends JPanel implements Serializable {
     public void setExpandedWidth(int expandedWidth) {
         this.expandedWidth = expandedWidth;
         if (expanded) {
+            resizeAnimator.stop();
             setPreferredSize(new Dimension(expandedWidth, getPreferredSize().height));
         }
     }
@@ -615,6 +1595,15 @@ public class SideMenuComponent extends JPanel implements Serializable {
     
     public void setHoverColor(Color hoverColor) {
         this.hoverColor = hoverColor;
+        for (ItemRow row : itemRows.values()) {
+            row.panel.setHoverColor(hoverColor);
+        }
+        if (virtualPanel != null) {
+            virtualPanel.forEachPanel(panel -> panel.setHoverColor(hoverColor));
+        }
+        if (cellView != null) {
+            cellView.repaint();
+        }
     }
     
     public Color getTextHoverColor() {
@@ -623,6 +1612,15 @@ public class SideMenuComponent extends JPanel implements Serializable {
     
     public void setTextHoverColor(Color textHoverColor) {
         this.textHoverColor = textHoverColor;
+        for (ItemRow row : itemRows.values()) {
+            row.panel.setTextHoverColor(textHoverColor);
+        }
+        if (virtualPanel != null) {
+            virtualPanel.forEachPanel(panel -> panel.setTextHoverColor(textHoverColor));
+        }
+        if (cellView != null) {
+            cellView.repaint();
+        }
     }
     
     public Color getTextColor() {
@@ -631,7 +1629,9 @@ public class SideMenuComponent extends JPanel implements Serializable {
     
     public void setTextColor(Color textColor) {
         this.textColor = textColor;
+        updateFilterField();
         SwingUtilities.invokeLater(() -> {
+            discardItemRows();
             updateMenuItems();
             revalidate();
             repaint();
@@ -644,7 +1644,9 @@ public class SideMenuComponent extends JPanel implements Serializable {
     
     public void setOpcionesFont(Font opcionesFont) {
         this.opcionesFont = opcionesFont;
+        updateFilterField();
         SwingUtilities.invokeLater(() -> {
+            discardItemRows();
             updateMenuItems();
             revalidate();
             repaint();
@@ -658,12 +1660,249 @@ public class SideMenuComponent extends JPanel implements Serializable {
     public void setPreferredHeight(int preferredHeight) {
         this.preferredHeight = preferredHeight;
         SwingUtilities.invokeLater(() -> {
+            discardItemRows();
             updateMenuItems();
             revalidate();
             repaint();
         });
     }
     
+    public boolean isVirtualized() {
+        return virtualized;
+    }
+    
+    /**
+     * Activa el modo virtualizado para menús muy grandes: el contenido se
+     * muestra dentro de un JScrollPane y solo se crean paneles para las filas
+     * que intersectan el área visible.
+     */
+    public void setVirtualized(boolean virtualized) {
+        if (this.virtualized == virtualized) return;
+        this.virtualized = virtualized;
+        installContentView();
+    }
+    
+    public boolean isFlyweightRendering() {
+        return flyweightRendering;
+    }
+    
+    /**
+     * Activa el pintado directo: en lugar de un panel por ítem, un solo
+     * componente pinta todas las filas con el {@link SideMenuCellRenderer}
+     * configurado y resuelve los clics por coordenada. Tiene prioridad sobre
+     * el modo virtualizado.
+     */
+    public void setFlyweightRendering(boolean flyweightRendering) {
+        if (this.flyweightRendering == flyweightRendering) return;
+        this.flyweightRendering = flyweightRendering;
+        installContentView();
+    }
+    
+    public SideMenuCellRenderer getCellRenderer() {
+        return cellRenderer;
+    }
+    
+    /**
+     * Renderizador de filas usado en el modo de pintado directo
+     */
+    public void setCellRenderer(SideMenuCellRenderer cellRenderer) {
+        this.cellRenderer = cellRenderer != null ? cellRenderer : new DefaultSideMenuCellRenderer();
+        if (cellView != null) {
+            cellView.resetRowHeight();
+        }
+    }
+    
+    /**
+     * Repinta la fila de un ítem en el modo de pintado directo
+     */
+    void repaintMenuItem(SideMenuItem item) {
+        if (cellView != null) {
+            cellView.repaintItem(item);
+        }
+    }
+    
+    /**
+     * Coloca en el centro el contenedor que corresponde al modo actual
+     * (paneles, paneles virtualizados o pintado directo)
+     */
+    private void installContentView() {
+        hoveredPanel = null;
+        if (cellView != null) {
+            cellView.setHoveredItem(null);
+        }
+        itemRows.clear();
+        verticalGlue = null;
+        contentPanel.removeAll();
+        if (virtualPanel != null) {
+            virtualPanel.discardPanels();
+        }
+        
+        if (flyweightRendering) {
+            if (cellView == null) {
+                cellView = new SideMenuCellView(this);
+                cellScrollPane = createScrollPane(cellView);
+            }
+            contentLayer.setView(cellScrollPane);
+        } else if (virtualized) {
+            if (virtualPanel == null) {
+                virtualPanel = new SideMenuVirtualPanel(this::createItemPanel);
+                virtualScrollPane = createScrollPane(virtualPanel);
+                // Recolocar las filas cada vez que cambia la posición del viewport
+                virtualScrollPane.getViewport().addChangeListener(e -> virtualPanel.layoutVisibleRows());
+            }
+            contentLayer.setView(virtualScrollPane);
+        } else {
+            contentLayer.setView(contentPanel);
+        }
+        
+        updateMenuItems();
+        revalidate();
+        repaint();
+    }
+    
+    /**
+     * Resuelve la fila bajo el mouse y actualiza solo la fila anterior y la
+     * nueva. La llama SideMenuHoverTracker como mucho una vez por cuadro.
+     *
+     * @param point Posición en coordenadas del contenido, o null si el mouse salió
+     */
+    void updateHover(Point point) {
+        if (flyweightRendering) {
+            SideMenuItem item = null;
+            if (point != null) {
+                Point p = SwingUtilities.convertPoint(contentLayer, point, cellView);
+                int row = cellView.rowAtPoint(p.y);
+                item = row >= 0 ? cellView.getRows().get(row) : null;
+            }
+            cellView.setHoveredItem(item);
+            return;
+        }
+        
+        SideMenuItemPanel panel = null;
+        if (point != null) {
+            if (virtualized) {
+                panel = virtualPanel.panelAt(SwingUtilities.convertPoint(contentLayer, point, virtualPanel).y);
+            } else {
+                panel = panelAt(SwingUtilities.convertPoint(contentLayer, point, contentPanel).y);
+            }
+        }
+        // En modo virtualizado un panel reutilizado pierde su estado hover
+        if (panel != hoveredPanel || (panel != null && !panel.isHovered())) {
+            if (hoveredPanel != null && hoveredPanel != panel) {
+                hoveredPanel.setHovered(false);
+            }
+            hoveredPanel = panel;
+            if (panel != null) {
+                panel.setHovered(true);
+            }
+        }
+    }
+    
+    /**
+     * Búsqueda binaria del panel en la coordenada y del contentPanel
+     */
+    private SideMenuItemPanel panelAt(int y) {
+        int low = 0;
+        int high = itemRows.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            Component c = contentPanel.getComponent(mid * 2); // Panel y espaciado alternados
+            if (y < c.getY()) {
+                high = mid - 1;
+            } else if (y >= c.getY() + c.getHeight()) {
+                low = mid + 1;
+            } else {
+                return (SideMenuItemPanel) c;
+            }
+        }
+        return null;
+    }
+    
+    private JScrollPane createScrollPane(JComponent view) {
+        JScrollPane scrollPane = new JScrollPane(view,
+                ScrollPaneConstants.VERTICAL_SCROLLBAR_AS_NEEDED,
+                ScrollPaneConstants.HORIZONTAL_SCROLLBAR_NEVER);
+        scrollPane.setBorder(null);
+        scrollPane.setOpaque(false);
+        scrollPane.getViewport().setOpaque(false);
+        return scrollPane;
+    }
+    
+    public int getAnimationDuration() {
+        return animationDuration;
+    }
+    
+    /**
+     * Duración en milisegundos de la animación completa entre colapsado y
+     * expandido; 0 desactiva la animación
+     */
+    public void setAnimationDuration(int animationDuration) {
+        this.animationDuration = Math.max(0, animationDuration);
+    }
+    
+    public boolean isSnapshotTransitions() {
+        return snapshotTransitions;
+    }
+    
+    /**
+     * Si es true (por defecto), la animación de ancho pinta capturas del
+     * estado inicial y final en lugar de disponer y pintar los ítems en cada
+     * cuadro; al terminar se hace una sola disposición real
+     */
+    public void setSnapshotTransitions(boolean snapshotTransitions) {
+        this.snapshotTransitions = snapshotTransitions;
+        if (!snapshotTransitions) {
+            endTransition();
+        }
+    }
+    
+    public boolean isTransitionAntialiasing() {
+        return transitionAntialiasing;
+    }
+    
+    /**
+     * Mantiene el anti-aliasing y el escalado suave mientras dura la
+     * transición; por defecto se desactivan para pintar más rápido
+     */
+    public void setTransitionAntialiasing(boolean transitionAntialiasing) {
+        this.transitionAntialiasing = transitionAntialiasing;
+    }
+    
+    public SideMenuAnimator.Easing getAnimationEasing() {
+        return resizeAnimator.getEasing();
+    }
+    
+    public void setAnimationEasing(SideMenuAnimator.Easing animationEasing) {
+        resizeAnimator.setEasing(animationEasing);
+    }
+    
+    /**
+     * Controlador de la animación de ancho, para consultar las estadísticas
+     * de cuadros
+     */
+    public SideMenuAnimator getResizeAnimator() {
+        return resizeAnimator;
+    }
+    
+    public boolean isAsyncIconLoading() {
+        return asyncIconLoading;
+    }
+    
+    /**
+     * Si es true (por defecto), los iconos de los ítems se decodifican en
+     * segundo plano la primera vez que se muestran y mientras tanto se pinta
+     * el icono por defecto
+     */
+    public void setAsyncIconLoading(boolean asyncIconLoading) {
+        this.asyncIconLoading = asyncIconLoading;
+        for (ItemRow row : itemRows.values()) {
+            row.panel.setAsyncIconLoading(asyncIconLoading);
+        }
+        if (virtualPanel != null) {
+            virtualPanel.forEachPanel(panel -> panel.setAsyncIconLoading(asyncIconLoading));
+        }
+    }
+    
     // Getters y setters para los iconos
     public Icon getHamburgerIcon() {
         return hamburgerIcon;
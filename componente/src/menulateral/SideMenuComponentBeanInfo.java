@@ -11,7 +11,7 @@ public class SideMenuComponentBeanInfo extends SimpleBeanInfo {
     @Override
     public PropertyDescriptor[] getPropertyDescriptors() {
         try {
-            PropertyDescriptor[] properties = new PropertyDescriptor[14];
+            PropertyDescriptor[] properties = new PropertyDescriptor[23];
             
             // Propiedad model (NUEVA)
             properties[0] = new PropertyDescriptor("model", SideMenuComponent.class);
@@ -85,6 +85,51 @@ public class SideMenuComponentBeanInfo extends SimpleBeanInfo {
             properties[13].setDisplayName("Preferred Height");
             properties[13].setShortDescription("Alto del panel que contiene al item");
             
+            // Propiedad virtualized
+            properties[14] = new PropertyDescriptor("virtualized", SideMenuComponent.class);
+            properties[14].setDisplayName("Virtualized");
+            properties[14].setShortDescription("Solo crea paneles para las opciones visibles (menús muy grandes)");
+            
+            // Propiedad asyncIconLoading
+            properties[15] = new PropertyDescriptor("asyncIconLoading", SideMenuComponent.class);
+            properties[15].setDisplayName("Async Icon Loading");
+            properties[15].setShortDescription("Carga los iconos en segundo plano mostrando un icono por defecto");
+            
+            // Propiedad animationDuration
+            properties[16] = new PropertyDescriptor("animationDuration", SideMenuComponent.class);
+            properties[16].setDisplayName("Animation Duration");
+            properties[16].setShortDescription("Milisegundos que tarda la animación de expandir/colapsar el menú");
+            
+            // Propiedad snapshotTransitions
+            properties[17] = new PropertyDescriptor("snapshotTransitions", SideMenuComponent.class);
+            properties[17].setDisplayName("Snapshot Transitions");
+            properties[17].setShortDescription("Anima el ancho pintando capturas en lugar de redistribuir las opciones en cada cuadro");
+            
+            // Propiedad transitionAntialiasing
+            properties[18] = new PropertyDescriptor("transitionAntialiasing", SideMenuComponent.class);
+            properties[18].setDisplayName("Transition Antialiasing");
+            properties[18].setShortDescription("Conserva el anti-aliasing mientras dura la animación");
+            
+            // Propiedad flyweightRendering
+            properties[19] = new PropertyDescriptor("flyweightRendering", SideMenuComponent.class);
+            properties[19].setDisplayName("Flyweight Rendering");
+            properties[19].setShortDescription("Pinta todas las opciones desde un solo componente en lugar de un panel por opción");
+            
+            // Propiedad loadingText
+            properties[20] = new PropertyDescriptor("loadingText", SideMenuComponent.class);
+            properties[20].setDisplayName("Loading Text");
+            properties[20].setShortDescription("Texto que se muestra mientras se carga el modelo en segundo plano");
+            
+            // Propiedad filterVisible
+            properties[21] = new PropertyDescriptor("filterVisible", SideMenuComponent.class);
+            properties[21].setDisplayName("Filter Visible");
+            properties[21].setShortDescription("Muestra un campo para filtrar las opciones con el menú expandido");
+            
+            // Propiedad commandPaletteEnabled
+            properties[22] = new PropertyDescriptor("commandPaletteEnabled", SideMenuComponent.class);
+            properties[22].setDisplayName("Command Palette Enabled");
+            properties[22].setShortDescription("Abre con Ctrl+K una paleta para buscar y ejecutar cualquier opción");
+            
             return properties;
             
         } catch (IntrospectionException e) {
@@ -0,0 +1,23 @@
+package menulateral;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Executor compartido para el trabajo en segundo plano del menú, como la
+ * carga asíncrona de modelos y de iconos. Usa un hilo virtual por tarea, así que las
+ * tareas pueden bloquearse esperando a un servicio sin ocupar hilos de
+ * plataforma.
+ */
+final class SideMenuExecutors {
+
+    private static final ExecutorService BACKGROUND =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("SideMenu-", 0).factory());
+
+    private SideMenuExecutors() {
+    }
+
+    static ExecutorService background() {
+        return BACKGROUND;
+    }
+}
@@ -0,0 +1,62 @@
+package menulateral;
+
+/**
+ * Puntuación difusa por subsecuencia para la paleta de comandos: las letras
+ * del término deben aparecer en orden en el texto, y se premian las que caen
+ * al inicio de una palabra o seguidas. "usr" coincide con "usuarios" y
+ * "cfg" con "configuración". Los textos se comparan normalizados con
+ * {@link SideMenuPrefixTrie#normalize(String)}.
+ */
+final class SideMenuFuzzyMatcher {
+
+    static final int NO_MATCH = -1;
+
+    private static final int MATCH = 1;
+    private static final int CONSECUTIVE_BONUS = 5;
+    private static final int WORD_START_BONUS = 8;
+    private static final int MAX_STARTS = 8; // Posiciones de inicio probadas por término
+
+    private SideMenuFuzzyMatcher() {
+    }
+
+    /**
+     * Puntúa un término contra un texto, ambos ya normalizados
+     *
+     * @return Puntuación (mayor es mejor) o {@link #NO_MATCH}
+     */
+    static int score(String term, String text) {
+        if (term.isEmpty()) return 0;
+        if (term.length() > text.length()) return NO_MATCH;
+
+        // Se prueba desde varias apariciones de la primera letra: la primera
+        // no siempre da la mejor puntuación ("us" en "campus usuarios")
+        int best = NO_MATCH;
+        int start = text.indexOf(term.charAt(0));
+        for (int tries = 0; start >= 0 && tries < MAX_STARTS; tries++) {
+            int score = scoreFrom(term, text, start);
+            if (score == NO_MATCH) break; // Desde más adelante tampoco coincide
+            best = Math.max(best, score);
+            start = text.indexOf(term.charAt(0), start + 1);
+        }
+        return best;
+    }
+
+    private static int scoreFrom(String term, String text, int start) {
+        int score = 0;
+        int last = -2;
+        int t = 0;
+        for (int i = start; i < text.length() && t < term.length(); i++) {
+            if (text.charAt(i) != term.charAt(t)) continue;
+            score += MATCH;
+            if (i == last + 1) {
+                score += CONSECUTIVE_BONUS;
+            }
+            if (i == 0 || !Character.isLetterOrDigit(text.charAt(i - 1))) {
+                score += WORD_START_BONUS;
+            }
+            last = i;
+            t++;
+        }
+        return t == term.length() ? score : NO_MATCH;
+    }
+}
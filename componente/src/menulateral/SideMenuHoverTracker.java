@@ -0,0 +1,84 @@
+package menulateral;
+
+import java.awt.AWTEvent;
+import java.awt.Point;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import javax.swing.JComponent;
+import javax.swing.JLayer;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.plaf.LayerUI;
+
+/**
+ * Seguimiento centralizado del mouse sobre el contenido del menú.
+ * Recibe los eventos de todos los descendientes a través del JLayer y
+ * agrupa los cambios de posición para resolver la fila bajo el mouse como
+ * mucho una vez por cuadro.
+ */
+class SideMenuHoverTracker extends LayerUI<JComponent> {
+
+    private static final int FRAME_DELAY = 16; // ~60 cuadros por segundo
+
+    private final SideMenuComponent menu;
+    private transient Timer timer;
+    private Point pendingPoint; // En coordenadas del JLayer; null = fuera
+
+    SideMenuHoverTracker(SideMenuComponent menu) {
+        this.menu = menu;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void installUI(JComponent c) {
+        super.installUI(c);
+        ((JLayer<JComponent>) c).setLayerEventMask(
+                AWTEvent.MOUSE_EVENT_MASK | AWTEvent.MOUSE_MOTION_EVENT_MASK | AWTEvent.MOUSE_WHEEL_EVENT_MASK);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void uninstallUI(JComponent c) {
+        ((JLayer<JComponent>) c).setLayerEventMask(0);
+        if (timer != null) {
+            timer.stop();
+        }
+        super.uninstallUI(c);
+    }
+
+    @Override
+    protected void processMouseEvent(MouseEvent e, JLayer<? extends JComponent> layer) {
+        Point p = SwingUtilities.convertPoint(e.getComponent(), e.getPoint(), layer);
+        if (e.getID() == MouseEvent.MOUSE_EXITED && !layer.contains(p)) {
+            // Salió del contenido (no solo de una fila)
+            schedule(null);
+        } else {
+            schedule(p);
+        }
+    }
+
+    @Override
+    protected void processMouseMotionEvent(MouseEvent e, JLayer<? extends JComponent> layer) {
+        schedule(SwingUtilities.convertPoint(e.getComponent(), e.getPoint(), layer));
+    }
+
+    @Override
+    protected void processMouseWheelEvent(MouseWheelEvent e, JLayer<? extends JComponent> layer) {
+        // El contenido se desplaza bajo el mouse: resolver de nuevo al siguiente cuadro
+        schedule(SwingUtilities.convertPoint(e.getComponent(), e.getPoint(), layer));
+    }
+
+    /**
+     * Guarda la última posición y programa una sola resolución por cuadro
+     */
+    private void schedule(Point p) {
+        pendingPoint = p;
+        if (timer == null) {
+            timer = new Timer(FRAME_DELAY, e -> menu.updateHover(pendingPoint));
+            timer.setRepeats(false);
+        }
+        if (!timer.isRunning()) {
+            timer.start();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package menulateral;
+
+import java.awt.*;
+import java.awt.image.BaseMultiResolutionImage;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.swing.ImageIcon;
+
+/**
+ * Caché compartida de los iconos que se dibujan por código (hamburguesa,
+ * flechas de expansión e icono por defecto). Cada combinación de tipo,
+ * tamaño, color y escala se dibuja una sola vez y se reutiliza en todos los
+ * paneles y menús, así que reconstruir un menú no crea imágenes nuevas.
+ * Con escalas distintas de 1.0 el icono es una MultiResolutionImage con la
+ * variante de tamaño lógico y la de la pantalla.
+ */
+final class SideMenuIconAtlas {
+
+    /**
+     * Iconos que se saben dibujar
+     */
+    enum Kind {
+        HAMBURGER,
+        ARROW_DOWN,
+        ARROW_RIGHT,
+        LOADING,
+        DEFAULT
+    }
+
+    static final Color DEFAULT_ICON_COLOR = new Color(150, 150, 150);
+
+    private static final int MAX_ENTRIES = 128; // Solo cambia con los colores configurados
+
+    private static final Map<Key, ImageIcon> ICONS = new LinkedHashMap<Key, ImageIcon>(32, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, ImageIcon> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private SideMenuIconAtlas() {
+    }
+
+    /**
+     * Obtiene el icono indicado, dibujándolo solo la primera vez
+     *
+     * @param kind Tipo de icono
+     * @param size Tamaño lógico (ancho y alto) en píxeles
+     * @param color Color de dibujo
+     * @param scale Factor de escala del dispositivo (1.0 = sin escala)
+     */
+    static ImageIcon get(Kind kind, int size, Color color, double scale) {
+        Key key = new Key(kind, size, color.getRGB(), scale);
+        synchronized (ICONS) {
+            ImageIcon icon = ICONS.get(key);
+            if (icon == null) {
+                if (Double.compare(scale, 1.0) == 0) {
+                    icon = new ImageIcon(render(kind, size, color, 1.0));
+                } else {
+                    Image base = get(kind, size, color, 1.0).getImage();
+                    icon = new ImageIcon(new BaseMultiResolutionImage(base, render(kind, size, color, scale)));
+                }
+                ICONS.put(key, icon);
+            }
+            return icon;
+        }
+    }
+
+    private static BufferedImage render(Kind kind, int size, Color color, double scale) {
+        int pixels = (int) Math.ceil(size * scale);
+        BufferedImage img = new BufferedImage(pixels, pixels, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = img.createGraphics();
+        g2d.scale(scale, scale);
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setColor(color);
+
+        switch (kind) {
+            case HAMBURGER: {
+                // 3 líneas horizontales
+                g2d.setStroke(new BasicStroke(2.0f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+                int lineWidth = size - 6;
+                int startX = 3;
+                g2d.drawLine(startX, size / 4, startX + lineWidth, size / 4);
+                g2d.drawLine(startX, size / 2, startX + lineWidth, size / 2);
+                g2d.drawLine(startX, (size * 3) / 4, startX + lineWidth, (size * 3) / 4);
+                break;
+            }
+            case ARROW_DOWN: {
+                // Flecha hacia abajo (▼), 10x6 en un lienzo de 16
+                int width = size * 10 / 16;
+                int height = size * 6 / 16;
+                int x = (size - width) / 2;
+                int y = (size - height) / 2;
+                g2d.fillPolygon(new int[] {x, x + width / 2, x + width}, new int[] {y, y + height, y}, 3);
+                break;
+            }
+            case ARROW_RIGHT: {
+                // Flecha hacia la derecha (▶), 6x10 en un lienzo de 16
+                int width = size * 6 / 16;
+                int height = size * 10 / 16;
+                int x = (size - width) / 2;
+                int y = (size - height) / 2;
+                g2d.fillPolygon(new int[] {x, x + width, x}, new int[] {y, y + height / 2, y + height}, 3);
+                break;
+            }
+            case LOADING: {
+                // Tres puntos (⋯), en lugar de la flecha mientras se cargan los hijos
+                int dot = Math.max(2, size / 6);
+                int gap = (size - dot * 3) / 4;
+                int y = (size - dot) / 2;
+                for (int i = 0; i < 3; i++) {
+                    g2d.fillOval(gap + i * (dot + gap), y, dot, dot);
+                }
+                break;
+            }
+            case DEFAULT:
+                // Círculo simple
+                g2d.fillOval(2, 2, size - 4, size - 4);
+                break;
+        }
+
+        g2d.dispose();
+        return img;
+    }
+
+    private static final class Key {
+        private final Kind kind;
+        private final int size;
+        private final int rgb;
+        private final double scale;
+
+        Key(Kind kind, int size, int rgb, double scale) {
+            this.kind = kind;
+            this.size = size;
+            this.rgb = rgb;
+            this.scale = scale;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof Key)) return false;
+            Key that = (Key) obj;
+            return kind == that.kind && size == that.size && rgb == that.rgb
+                    && Double.compare(scale, that.scale) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return ((kind.hashCode() * 31 + size) * 31 + rgb) * 31 + Double.hashCode(scale);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package menulateral;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import javax.imageio.ImageIO;
+
+/**
+ * Iconos empaquetados durante la compilación por {@link SideMenuIconBundler}:
+ * una sola hoja de sprites con cada icono ya redimensionado a los tamaños del
+ * menú, y un índice. El recurso se lee completo una vez, la primera vez que
+ * se pide un icono; si no existe, todos los iconos se cargan como antes.
+ */
+final class SideMenuIconBundle {
+
+    static final String RESOURCE = "/menulateral/icons.bundle";
+    static final int MAGIC = 0x534D4942; // "SMIB"
+    static final short VERSION = 1;
+
+    private static final SideMenuIconBundle EMPTY = new SideMenuIconBundle(Collections.emptyMap(), null);
+
+    /**
+     * Posición de un icono en la hoja
+     */
+    private static final class Sprite {
+        final int size;
+        final int x;
+        final int y;
+
+        Sprite(int size, int x, int y) {
+            this.size = size;
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    // Carga diferida y segura entre hilos, sin sincronizar cada consulta
+    private static final class Holder {
+        static final SideMenuIconBundle INSTANCE = load();
+    }
+
+    private final Map<String, Sprite[]> sprites; // Por nombre de recurso, de menor a mayor
+    private final BufferedImage sheet;
+
+    private SideMenuIconBundle(Map<String, Sprite[]> sprites, BufferedImage sheet) {
+        this.sprites = sprites;
+        this.sheet = sheet;
+    }
+
+    static SideMenuIconBundle get() {
+        return Holder.INSTANCE;
+    }
+
+    private static SideMenuIconBundle load() {
+        byte[] data;
+        try (InputStream in = SideMenuIconBundle.class.getResourceAsStream(RESOURCE)) {
+            if (in == null) return EMPTY;
+            data = in.readAllBytes();
+        } catch (IOException e) {
+            System.err.println("No se pudo leer el paquete de iconos: " + e.getMessage());
+            return EMPTY;
+        }
+
+        try {
+            DataInputStream index = new DataInputStream(new ByteArrayInputStream(data));
+            if (index.readInt() != MAGIC || index.readShort() != VERSION) {
+                System.err.println("Paquete de iconos con formato no soportado: " + RESOURCE);
+                return EMPTY;
+            }
+            int names = index.readInt();
+            Map<String, Sprite[]> sprites = new HashMap<>(names * 2);
+            for (int i = 0; i < names; i++) {
+                String name = index.readUTF();
+                Sprite[] sizes = new Sprite[index.readUnsignedByte()];
+                for (int j = 0; j < sizes.length; j++) {
+                    sizes[j] = new Sprite(index.readUnsignedShort(), index.readUnsignedShort(), index.readUnsignedShort());
+                }
+                sprites.put(name, sizes);
+            }
+            int length = index.readInt();
+            BufferedImage sheet = ImageIO.read(new ByteArrayInputStream(data, data.length - index.available(), length));
+            if (sheet == null) {
+                System.err.println("Hoja de iconos no válida en " + RESOURCE);
+                return EMPTY;
+            }
+            return new SideMenuIconBundle(sprites, sheet);
+        } catch (IOException e) {
+            System.err.println("Paquete de iconos dañado: " + e.getMessage());
+            return EMPTY;
+        }
+    }
+
+    /**
+     * Nombre absoluto del recurso para una ruta de icono; las rutas relativas
+     * se resuelven respecto al paquete, igual que Class.getResource
+     */
+    static String resourceName(String iconPath) {
+        if (iconPath == null || iconPath.isEmpty()) return null;
+        return iconPath.startsWith("/") ? iconPath : "/menulateral/" + iconPath;
+    }
+
+    /**
+     * Indica si el icono está empaquetado (en algún tamaño)
+     */
+    boolean contains(String iconPath) {
+        return sizesOf(iconPath) != null;
+    }
+
+    /**
+     * Icono de exactamente pixels x pixels, o null si no se empaquetó ese tamaño
+     */
+    BufferedImage getImage(String iconPath, int pixels) {
+        Sprite[] sizes = sizesOf(iconPath);
+        if (sizes != null) {
+            for (Sprite sprite : sizes) {
+                if (sprite.size == pixels) {
+                    return copy(sprite);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Variante más grande del icono, o null si no está empaquetado
+     */
+    BufferedImage getLargestImage(String iconPath) {
+        Sprite[] sizes = sizesOf(iconPath);
+        return sizes != null ? copy(sizes[sizes.length - 1]) : null;
+    }
+
+    private Sprite[] sizesOf(String iconPath) {
+        String name = resourceName(iconPath);
+        return name != null ? sprites.get(name) : null;
+    }
+
+    // Copia propia: una subimagen mantendría viva toda la hoja en la caché
+    private BufferedImage copy(Sprite sprite) {
+        BufferedImage image = new BufferedImage(sprite.size, sprite.size, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = image.createGraphics();
+        g2d.drawImage(sheet.getSubimage(sprite.x, sprite.y, sprite.size, sprite.size), 0, 0, null);
+        g2d.dispose();
+        return image;
+    }
+}
@@ -0,0 +1,176 @@
+package menulateral;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import javax.imageio.ImageIO;
+
+/**
+ * Herramienta de compilación que empaqueta los iconos del menú: redimensiona
+ * cada imagen a los tamaños que usa el componente y las guarda en una sola
+ * hoja PNG con su índice, en el recurso que lee {@link SideMenuIconBundle}.
+ * La invoca el target -post-compile de build.xml:
+ * <pre>
+ * java menulateral.SideMenuIconBundler &lt;clases&gt; &lt;patrones glob&gt; &lt;tamaños&gt;
+ * java menulateral.SideMenuIconBundler build/classes icons/home.png,icons/perfil.png 24,30,36,48
+ * </pre>
+ * Solo se empaquetan los iconos indicados: el menú no usa necesariamente
+ * todas las imágenes del classpath.
+ * Los tamaños están en píxeles reales: 24 lógicos a escalas 1, 1.25, 1.5 y 2.
+ */
+public final class SideMenuIconBundler {
+
+    private static final int SHEET_WIDTH = 1024; // Ancho máximo de la hoja
+
+    private SideMenuIconBundler() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Uso: SideMenuIconBundler <directorio de clases> <patrones glob separados por coma> <tamaños separados por coma>");
+            System.exit(2);
+        }
+        Path classes = Paths.get(args[0]);
+        int count = bundle(classes, args[1], parseSizes(args[2]));
+        System.out.println("Iconos empaquetados: " + count + " en " + classes.resolve(SideMenuIconBundle.RESOURCE.substring(1)));
+    }
+
+    /**
+     * Empaqueta las imágenes del directorio que coinciden con algún patrón
+     *
+     * @param classes  Raíz del classpath (las rutas del índice son relativas a ella)
+     * @param includes Patrones de las rutas relativas separados por coma, por
+     *                 ejemplo "icons/home.png,icons/perfil.png"
+     * @param sizes    Tamaños en píxeles a generar para cada icono
+     * @return Cantidad de iconos empaquetados; con cero se elimina el paquete
+     */
+    public static int bundle(Path classes, String includes, int[] sizes) throws IOException {
+        List<PathMatcher> matchers = new ArrayList<>();
+        for (String glob : includes.split(",")) {
+            if (!glob.trim().isEmpty()) {
+                matchers.add(FileSystems.getDefault().getPathMatcher("glob:" + glob.trim()));
+            }
+        }
+        Map<String, BufferedImage> images = new TreeMap<>(); // Orden estable entre compilaciones
+        try (Stream<Path> files = Files.walk(classes)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Path relative = classes.relativize(file);
+                if (Files.isRegularFile(file) && matches(matchers, relative) && isImage(file)) {
+                    BufferedImage image = ImageIO.read(file.toFile());
+                    if (image == null) {
+                        System.err.println("Se omite " + relative + ": formato de imagen no soportado");
+                        continue;
+                    }
+                    images.put("/" + relative.toString().replace('\\', '/'), image);
+                }
+            }
+        }
+
+        Path output = classes.resolve(SideMenuIconBundle.RESOURCE.substring(1));
+        if (images.isEmpty()) {
+            Files.deleteIfExists(output);
+            return 0;
+        }
+
+        // Filas de igual altura: cada fila contiene un solo tamaño
+        int[] sorted = Arrays.stream(sizes).distinct().sorted().toArray();
+        int width = Math.min(SHEET_WIDTH, images.size() * sorted[sorted.length - 1]);
+        List<int[]> positions = new ArrayList<>(); // x, y de cada (icono, tamaño)
+        int y = 0;
+        for (int s = sorted.length - 1; s >= 0; s--) {
+            int size = sorted[s];
+            int x = 0;
+            for (int i = 0; i < images.size(); i++) {
+                if (x + size > width) {
+                    x = 0;
+                    y += size;
+                }
+                positions.add(new int[] {x, y});
+                x += size;
+            }
+            y += size;
+        }
+        if (y > 0xFFFF) {
+            throw new IOException("Demasiados iconos para una hoja: " + images.size());
+        }
+
+        BufferedImage sheet = new BufferedImage(width, y, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = sheet.createGraphics();
+        int p = 0;
+        for (int s = sorted.length - 1; s >= 0; s--) {
+            for (BufferedImage image : images.values()) {
+                int[] at = positions.get(p++);
+                // El mismo redimensionado que usa la caché en tiempo de ejecución
+                g2d.drawImage(SideMenuIconCache.scale(image, sorted[s]), at[0], at[1], null);
+            }
+        }
+        g2d.dispose();
+
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(sheet, "png", png);
+
+        Files.createDirectories(output.getParent());
+        try (OutputStream out = Files.newOutputStream(output)) {
+            DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+            data.writeInt(SideMenuIconBundle.MAGIC);
+            data.writeShort(SideMenuIconBundle.VERSION);
+            data.writeInt(images.size());
+            int icon = 0;
+            for (String name : images.keySet()) {
+                data.writeUTF(name);
+                data.writeByte(sorted.length);
+                // Índice de menor a mayor; las filas se generaron de mayor a menor
+                for (int s = 0; s < sorted.length; s++) {
+                    int[] at = positions.get((sorted.length - 1 - s) * images.size() + icon);
+                    data.writeShort(sorted[s]);
+                    data.writeShort(at[0]);
+                    data.writeShort(at[1]);
+                }
+                icon++;
+            }
+            data.writeInt(png.size());
+            png.writeTo(data);
+            data.flush();
+        }
+        return images.size();
+    }
+
+    private static boolean matches(List<PathMatcher> matchers, Path relative) {
+        for (PathMatcher matcher : matchers) {
+            if (matcher.matches(relative)) return true;
+        }
+        return false;
+    }
+
+    private static boolean isImage(Path file) {
+        String name = file.getFileName().toString().toLowerCase();
+        return name.endsWith(".png") || name.endsWith(".gif") || name.endsWith(".jpg") || name.endsWith(".jpeg");
+    }
+
+    private static int[] parseSizes(String value) {
+        String[] parts = value.split(",");
+        int[] sizes = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            sizes[i] = Integer.parseInt(parts[i].trim());
+            if (sizes[i] <= 0 || sizes[i] > SHEET_WIDTH) {
+                throw new IllegalArgumentException("Tamaño de icono no válido: " + parts[i]);
+            }
+        }
+        return sizes;
+    }
+}
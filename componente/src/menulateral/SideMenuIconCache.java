@@ -0,0 +1,288 @@
+package menulateral;
+
+import java.awt.*;
+import java.awt.image.BaseMultiResolutionImage;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.swing.ImageIcon;
+
+/**
+ * Caché compartida (para todo el proceso) de iconos ya redimensionados.
+ * Las entradas se identifican por la fuente del icono (iconUrl o iconPath),
+ * el tamaño destino y el factor de escala, y se expulsan por orden LRU
+ * cuando se supera el presupuesto de memoria configurado.
+ * Con escalas distintas de 1.0 los iconos son MultiResolutionImage: miden
+ * el tamaño lógico y contienen además la variante para la pantalla.
+ */
+public final class SideMenuIconCache {
+
+    private static final SideMenuIconCache SHARED = new SideMenuIconCache(8L * 1024 * 1024);
+
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long maxBytes;
+    private long currentBytes;
+    private long hitCount;
+    private long missCount;
+
+    /**
+     * Crea una caché con el presupuesto indicado
+     * @param maxBytes Bytes máximos que pueden ocupar los rásteres guardados
+     */
+    public SideMenuIconCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Obtiene la caché compartida por todos los menús
+     */
+    public static SideMenuIconCache getShared() {
+        return SHARED;
+    }
+
+    /**
+     * Obtiene el icono del ítem redimensionado a size x size
+     *
+     * @param item Ítem del que se toma el icono
+     * @param size Tamaño lógico destino en píxeles
+     * @param scale Factor de escala del dispositivo (1.0 = sin escala)
+     * @return El icono de tamaño lógico size o null si el ítem no tiene icono
+     */
+    public ImageIcon getScaledIcon(SideMenuItem item, int size, double scale) {
+        Entry entry = getEntry(item, size, scale);
+        return entry != null ? entry.icon : null;
+    }
+
+    /**
+     * Obtiene el ráster del icono del ítem redimensionado a la resolución del
+     * dispositivo (size * scale píxeles)
+     *
+     * @see #getScaledIcon(SideMenuItem, int, double)
+     */
+    public BufferedImage getScaledImage(SideMenuItem item, int size, double scale) {
+        Entry entry = getEntry(item, size, scale);
+        return entry != null ? entry.image : null;
+    }
+
+    private Entry getEntry(SideMenuItem item, int size, double scale) {
+        Object source = sourceOf(item);
+        if (source == null) return null;
+
+        Key key = new Key(source, size, scale);
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                hitCount++;
+                return entry;
+            }
+            missCount++;
+        }
+
+        // Los iconos empaquetados ya vienen al tamaño exacto; el resto se
+        // redimensiona fuera del candado
+        int pixels = (int) Math.round(size * scale);
+        boolean fromPath = !(source instanceof ImageIcon);
+        BufferedImage image = fromPath ? SideMenuIconBundle.get().getImage(item.getIconPath(), pixels) : null;
+        if (image == null) {
+            ImageIcon original = item.getIcon();
+            if (original == null || original.getIconWidth() <= 0) return null;
+            image = scale(original.getImage(), pixels);
+        }
+        Entry entry;
+        if (Double.compare(scale, 1.0) == 0) {
+            entry = new Entry(image, null);
+        } else {
+            // Variante para la pantalla junto con la de tamaño lógico
+            Entry base = getEntry(item, size, 1.0);
+            entry = new Entry(image, base != null ? base.image : scale(image, size));
+        }
+
+        synchronized (this) {
+            Entry previous = entries.put(key, entry);
+            if (previous != null) {
+                currentBytes -= previous.bytes;
+            }
+            currentBytes += entry.bytes;
+            evict();
+        }
+        return entry;
+    }
+
+    /**
+     * Identifica la fuente del icono: la propia imagen si se asignó con
+     * setIcon (así un icono nuevo no reutiliza la entrada de la ruta), o si
+     * no la URL o la ruta
+     */
+    private static Object sourceOf(SideMenuItem item) {
+        ImageIcon assigned = item.getAssignedIcon();
+        if (assigned != null) {
+            return assigned; // ImageIcon se compara por identidad
+        }
+        if (item.getIconUrl() != null) {
+            return item.getIconUrl().toExternalForm();
+        }
+        if (item.getIconPath() != null && !item.getIconPath().isEmpty()) {
+            return item.getIconPath();
+        }
+        return item.getIcon();
+    }
+
+    /**
+     * Redimensiona con interpolación bilineal reduciendo a la mitad en cada
+     * paso, para conservar calidad similar a SCALE_SMOOTH
+     */
+    static BufferedImage scale(Image source, int targetSize) {
+        return scale(source, targetSize, targetSize);
+    }
+
+    /**
+     * Redimensiona a targetWidth x targetHeight con el mismo método
+     */
+    static BufferedImage scale(Image source, int targetWidth, int targetHeight) {
+        int width = source.getWidth(null);
+        int height = source.getHeight(null);
+        BufferedImage current = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = current.createGraphics();
+        g2d.drawImage(source, 0, 0, null);
+        g2d.dispose();
+
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            if (current.getWidth() <= targetWidth || current.getHeight() <= targetHeight) {
+                width = targetWidth;
+                height = targetHeight;
+            }
+
+            BufferedImage step = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            g2d = step.createGraphics();
+            g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g2d.drawImage(current, 0, 0, width, height, null);
+            g2d.dispose();
+            current = step;
+        } while (width != targetWidth || height != targetHeight);
+
+        return current;
+    }
+
+    /**
+     * Factor de escala de la pantalla donde se muestra el componente, o 1.0
+     * si todavía no se muestra
+     */
+    static double getDeviceScale(Component c) {
+        GraphicsConfiguration gc = c != null ? c.getGraphicsConfiguration() : null;
+        return gc != null ? gc.getDefaultTransform().getScaleX() : 1.0;
+    }
+
+    /**
+     * Icono de tamaño lógico width x height que contiene también la variante
+     * rasterizada para la escala indicada
+     */
+    static ImageIcon createMultiResolutionIcon(Image source, int width, int height, double scale) {
+        BufferedImage base = scale(source, width, height);
+        if (Double.compare(scale, 1.0) == 0) {
+            return new ImageIcon(base);
+        }
+        BufferedImage variant = scale(source, (int) Math.round(width * scale), (int) Math.round(height * scale));
+        return new ImageIcon(new BaseMultiResolutionImage(base, variant));
+    }
+
+    // Expulsa las entradas menos usadas hasta respetar el presupuesto
+    private void evict() {
+        Iterator<Entry> it = entries.values().iterator();
+        while (currentBytes > maxBytes && it.hasNext()) {
+            currentBytes -= it.next().bytes;
+            it.remove();
+        }
+    }
+
+    public synchronized long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public synchronized void setMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+        evict();
+    }
+
+    public synchronized long getCurrentBytes() {
+        return currentBytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Elimina todas las entradas y reinicia los contadores
+     */
+    public synchronized void clear() {
+        entries.clear();
+        currentBytes = 0;
+        hitCount = 0;
+        missCount = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "SideMenuIconCache[" + entries.size() + " iconos, " + currentBytes + "/" + maxBytes
+                + " bytes, hits=" + hitCount + ", misses=" + missCount + "]";
+    }
+
+    private static final class Key {
+        private final Object source;
+        private final int size;
+        private final double scale;
+
+        Key(Object source, int size, double scale) {
+            this.source = source;
+            this.size = size;
+            this.scale = scale;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof Key)) return false;
+            Key that = (Key) obj;
+            return size == that.size && Double.compare(scale, that.scale) == 0 && source.equals(that.source);
+        }
+
+        @Override
+        public int hashCode() {
+            return (source.hashCode() * 31 + size) * 31 + Double.hashCode(scale);
+        }
+    }
+
+    private static final class Entry {
+        final BufferedImage image;
+        final ImageIcon icon;
+        final long bytes;
+
+        /**
+         * @param image Ráster a la resolución del dispositivo
+         * @param base Ráster de tamaño lógico, o null si la escala es 1.0
+         */
+        Entry(BufferedImage image, BufferedImage base) {
+            this.image = image;
+            this.icon = base == null ? new ImageIcon(image) : new ImageIcon(new BaseMultiResolutionImage(base, image));
+            // El icono retiene también el ráster de tamaño lógico, aunque se
+            // expulse la entrada de escala 1.0 de la que se tomó
+            this.bytes = bytesOf(image) + (base != null ? bytesOf(base) : 0);
+        }
+
+        private static long bytesOf(BufferedImage image) {
+            return (long) image.getWidth() * image.getHeight() * 4;
+        }
+    }
+}
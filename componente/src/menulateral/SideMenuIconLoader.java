@@ -0,0 +1,58 @@
+package menulateral;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.swing.SwingUtilities;
+
+/**
+ * Carga los iconos de los ítems en segundo plano.
+ * La decodificación y el redimensionado se hacen en el executor compartido
+ * de {@link SideMenuExecutors} y las notificaciones se entregan en el EDT.
+ */
+final class SideMenuIconLoader {
+
+    // Ítems en carga y las notificaciones que esperan por ellos
+    private static final Map<SideMenuItem, List<Runnable>> PENDING = new IdentityHashMap<>();
+
+    private SideMenuIconLoader() {
+    }
+
+    /**
+     * Decodifica el icono del ítem y lo deja en la caché redimensionado.
+     * Si el ítem ya se está cargando, solo se agrega la notificación.
+     *
+     * @param onLoaded Se ejecuta en el EDT cuando el icono está listo
+     */
+    static void load(SideMenuItem item, int size, double scale, Runnable onLoaded) {
+        synchronized (PENDING) {
+            List<Runnable> callbacks = PENDING.get(item);
+            if (callbacks != null) {
+                callbacks.add(onLoaded);
+                return;
+            }
+            callbacks = new ArrayList<>();
+            callbacks.add(onLoaded);
+            PENDING.put(item, callbacks);
+        }
+
+        SideMenuExecutors.background().execute(() -> {
+            try {
+                SideMenuIconCache.getShared().getScaledIcon(item, size, scale);
+            } catch (Exception e) {
+                System.err.println("Error cargando icono para " + item.getText() + ": " + e.getMessage());
+            }
+
+            List<Runnable> callbacks;
+            synchronized (PENDING) {
+                callbacks = PENDING.remove(item);
+            }
+            SwingUtilities.invokeLater(() -> {
+                for (Runnable callback : callbacks) {
+                    callback.run();
+                }
+            });
+        });
+    }
+}
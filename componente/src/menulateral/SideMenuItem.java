@@ -1,33 +1,55 @@
 package menulateral;
 
 import java.awt.event.ActionListener;
+import java.awt.image.BufferedImage;
 import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 import javax.swing.ImageIcon;
 
 /**
- * Representa un elemento individual del menú lateral
+ * Representa un elemento individual del menú lateral.
+ * <p>
+ * Una vez agregado a un SideMenuModel, sus cambios se sincronizan con el
+ * bloqueo del modelo y pueden hacerse desde cualquier hilo.
  */
 public class SideMenuItem implements Serializable {
-    private String text;
+    private String key; // Identidad única e inmutable del ítem
+    private volatile String text;
     private ImageIcon icon;
-    private String tooltip;
-    private boolean enabled = true;
-    private boolean shown = true;
-    private Object userData;
-    private URL iconUrl;
-    private String iconPath;
-    private transient ActionListener actionListener;
+    private volatile String tooltip;
+    private volatile boolean enabled = true;
+    private volatile boolean shown = true;
+    private volatile Object userData;
+    private volatile URL iconUrl;
+    private volatile boolean iconUrlResolved = false; // La URL se busca la primera vez que se pide
+    private volatile String iconPath;
+    private boolean iconDecoded = false; // El icono se decodifica bajo demanda
+    private boolean iconAssigned = false; // El icono se asignó con setIcon, no viene de la ruta
+    private transient volatile ActionListener actionListener;
     
     // Propiedades para submenús
-    private boolean hasChildren = false;
-    private boolean expanded = false;
-    private List<SideMenuItem> children;
-    private int level = 0; // Nivel de anidamiento
+    private volatile boolean hasChildren = false;
+    private volatile boolean expanded = false;
+    private volatile List<SideMenuItem> children; // Siempre una SideMenuItemList
+    private volatile int level = 0; // Nivel de anidamiento
+    private volatile SideMenuItem parent; // Padre en el árbol (null en el nivel superior)
+    private transient volatile SideMenuModel model; // Modelo dueño (solo en el nivel superior)
+    
+    // Carga diferida de los hijos
+    private static final int LOAD_CHUNK = 32; // Hijos insertados por cada notificación
+    private transient volatile SideMenuChildLoader childLoader;
+    private transient volatile long childrenTtl; // Milisegundos; 0 = no caducan
+    private transient volatile boolean childrenLoaded;
+    private transient volatile long childrenLoadedAt; // System.nanoTime() de la última carga
+    private transient volatile boolean childrenLoading;
+    private transient volatile SideMenuModelSnapshot.Node snapshotNode;
     
     public SideMenuItem() {
         this("", null);
@@ -38,25 +60,93 @@ public class SideMenuItem implements Serializable {
     }
     
     public SideMenuItem(String text, String iconPath) {
-        this.text = text;
-        this.iconPath = iconPath;
-        this.iconUrl = resolveUrl(iconPath);
-        this.icon = (iconUrl != null) ? new ImageIcon(iconUrl) : null;
-        this.children = new ArrayList<>();
+        this(text, iconPath, null);
     }
     
     public SideMenuItem(String text, String iconPath, String tooltip) {
+        this(generateKey(), text, iconPath, tooltip);
+    }
+    
+    /**
+     * Crea un ítem con una clave proporcionada por el usuario
+     * 
+     * @param key Clave única del ítem; no puede ser null ni vacía
+     * @throws IllegalArgumentException si la clave es null o vacía
+     */
+    public SideMenuItem(String key, String text, String iconPath, String tooltip) {
+        if (key == null || key.isEmpty()) {
+            throw new IllegalArgumentException("La clave del ítem no puede ser null ni vacía");
+        }
+        this.key = key;
         this.text = text;
         this.iconPath = iconPath;
-        this.iconUrl = resolveUrl(iconPath);
-        this.icon = (iconUrl != null) ? new ImageIcon(iconUrl) : null;
         this.tooltip = tooltip;
-        this.children = new ArrayList<>();
+        this.children = SideMenuItemList.EMPTY;
+    }
+    
+    /**
+     * Copia del ítem sin hijos, sin padre y sin modelo: conserva la clave,
+     * las propiedades y el icono ya cargado. La usa el editor del modelo
+     * para trabajar sobre su propio árbol.
+     */
+    SideMenuItem copy() {
+        SideMenuItem copy = new SideMenuItem(key, text, null, tooltip);
+        copy.iconPath = iconPath;
+        copy.iconUrl = iconUrl;
+        copy.iconUrlResolved = iconUrlResolved;
+        synchronized (this) {
+            copy.icon = icon;
+            copy.iconDecoded = iconDecoded;
+            copy.iconAssigned = iconAssigned;
+        }
+        copy.enabled = enabled;
+        copy.shown = shown;
+        copy.userData = userData;
+        copy.actionListener = actionListener;
+        copy.hasChildren = hasChildren;
+        copy.expanded = expanded;
+        copy.childLoader = childLoader;
+        copy.childrenTtl = childrenTtl;
+        copy.childrenLoaded = childrenLoaded;
+        copy.childrenLoadedAt = childrenLoadedAt;
+        return copy;
+    }
+    
+    /**
+     * Copia separada con el estado guardado en un nodo de un snapshot. La usa
+     * el editor del modelo para armar el valor que publica.
+     */
+    static SideMenuItem copyOf(SideMenuModelSnapshot.Node node) {
+        SideMenuItem copy = node.getItem().copy();
+        copy.text = node.getText();
+        copy.tooltip = node.getTooltip();
+        copy.iconPath = node.getIconPath();
+        copy.enabled = node.isEnabled();
+        copy.shown = node.isShown();
+        copy.expanded = node.isExpanded();
+        copy.hasChildren = node.isHasChildren();
+        copy.userData = node.getUserData();
+        return copy;
+    }
+    
+    private static String generateKey() {
+        return UUID.randomUUID().toString();
+    }
+    
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (key == null) {
+            key = generateKey(); // Ítems serializados antes de existir la clave
+        }
+        children = SideMenuItemList.copyOf(children != null ? children : new ArrayList<>());
     }
     
     private URL resolveUrl(String path) {
         if (path == null || path.isEmpty()) return null;
 
+        // Los iconos empaquetados no se buscan en el classpath
+        if (SideMenuIconBundle.get().contains(path)) return null;
+
         // 1. Intentar como recurso del classpath (relativo al paquete)
         URL url = getClass().getResource(path);
 
@@ -75,25 +165,295 @@ public class SideMenuItem implements Serializable {
         return url;
     }
     
+    /**
+     * Toma el bloqueo del modelo dueño del árbol
+     * @return El modelo bloqueado, o null si el ítem no pertenece a ninguno
+     */
+    private SideMenuModel lockModel() {
+        while (true) {
+            SideMenuModel owner = getModel();
+            if (owner == null) return null;
+            owner.lock();
+            if (getModel() == owner) return owner;
+            owner.unlock(); // El árbol cambió de modelo mientras se esperaba
+        }
+    }
+    
+    private static void unlock(SideMenuModel owner) {
+        if (owner != null) {
+            owner.unlock();
+        }
+    }
+    
+    SideMenuItemList childList() {
+        return (SideMenuItemList) children;
+    }
+    
     // Métodos para submenús
+    
+    /**
+     * Agrega un hijo al final
+     * 
+     * @throws IllegalArgumentException si el ítem pertenece a un modelo y
+     *         alguna clave del árbol del hijo ya está en él
+     */
     public void addChild(SideMenuItem child) {
         if (child != null) {
-            child.setLevel(this.level + 1);
-            this.children.add(child);
-            this.hasChildren = true;
+            SideMenuModel owner = lockModel();
+            try {
+                if (owner != null) {
+                    owner.checkNewItem(child); // Antes de cambiar nada
+                }
+                child.setLevel(this.level + 1);
+                child.parent = this;
+                this.children = childList().appended(child);
+                this.hasChildren = true;
+                invalidateSnapshot();
+                if (owner != null) {
+                    owner.fireItemsInserted(this, children.size() - 1, child);
+                }
+            } finally {
+                unlock(owner);
+            }
         }
     }
     
     public void removeChild(SideMenuItem child) {
-        if (this.children.remove(child)) {
-            this.hasChildren = !this.children.isEmpty();
+        SideMenuModel owner = lockModel();
+        try {
+            // En un modelo la posición viene de su índice
+            boolean own = owner != null && child != null && child.parent == this;
+            removeChild(own ? owner.positionOf(child) : this.children.indexOf(child));
+        } finally {
+            unlock(owner);
         }
     }
     
     public void removeChild(int index) {
-        if (index >= 0 && index < children.size()) {
-            this.children.remove(index);
-            this.hasChildren = !this.children.isEmpty();
+        SideMenuModel owner = lockModel();
+        try {
+            if (index >= 0 && index < children.size()) {
+                SideMenuItem removed = children.get(index);
+                this.children = childList().removed(index);
+                removed.parent = null;
+                this.hasChildren = !this.children.isEmpty();
+                invalidateSnapshot();
+                if (owner != null) {
+                    owner.fireItemsRemoved(this, index, removed);
+                }
+            }
+        } finally {
+            unlock(owner);
+        }
+    }
+    
+    /**
+     * Mueve un hijo a otra posición dentro de este mismo ítem
+     */
+    public void moveChild(int fromIndex, int toIndex) {
+        SideMenuModel owner = lockModel();
+        try {
+            if (fromIndex < 0 || fromIndex >= children.size() || toIndex < 0 || toIndex >= children.size()
+                    || fromIndex == toIndex) {
+                return;
+            }
+            SideMenuItem child = children.get(fromIndex);
+            this.children = childList().moved(fromIndex, toIndex);
+            invalidateSnapshot();
+            if (owner != null) {
+                owner.fireItemsMoved(this, fromIndex, toIndex, child);
+            }
+        } finally {
+            unlock(owner);
+        }
+    }
+    
+    // Carga diferida de hijos
+    
+    /**
+     * Establece un cargador de hijos sin caducidad
+     * @see #setChildLoader(SideMenuChildLoader, long)
+     */
+    public void setChildLoader(SideMenuChildLoader childLoader) {
+        setChildLoader(childLoader, 0);
+    }
+    
+    /**
+     * Establece un cargador que obtiene los hijos la primera vez que se
+     * expande el ítem desde el menú, en segundo plano. Los hijos se insertan
+     * por partes a medida que llegan y quedan en memoria hasta que caducan.
+     * 
+     * @param childLoader Cargador de los hijos, o null para quitarlo
+     * @param ttlMillis Tiempo en milisegundos tras el cual la siguiente
+     *                  expansión vuelve a cargar los hijos; 0 = no caducan
+     */
+    public void setChildLoader(SideMenuChildLoader childLoader, long ttlMillis) {
+        this.childLoader = childLoader;
+        this.childrenTtl = Math.max(0, ttlMillis);
+        this.childrenLoaded = false;
+        if (childLoader != null) {
+            this.hasChildren = true; // Muestra la flecha aunque aún no haya hijos
+        }
+        fireChanged();
+    }
+    
+    public SideMenuChildLoader getChildLoader() {
+        return childLoader;
+    }
+    
+    /**
+     * Tiempo en milisegundos que se conservan los hijos cargados (0 = siempre)
+     */
+    public long getChildrenTtl() {
+        return childrenTtl;
+    }
+    
+    /**
+     * Indica si el cargador de hijos se está ejecutando
+     */
+    public boolean isChildrenLoading() {
+        return childrenLoading;
+    }
+    
+    /**
+     * Descarta la carga anterior: la siguiente expansión vuelve a pedir los
+     * hijos al cargador
+     */
+    public void invalidateChildren() {
+        this.childrenLoaded = false;
+    }
+    
+    private boolean needsChildren() {
+        if (childLoader == null || childrenLoading) return false;
+        if (!childrenLoaded) return true;
+        return childrenTtl > 0 && System.nanoTime() - childrenLoadedAt >= childrenTtl * 1_000_000L;
+    }
+    
+    /**
+     * Inicia la carga de los hijos si hay un cargador y aún no se cargaron
+     * (o caducaron). La llama el menú al expandir el ítem.
+     * 
+     * @return true si se inició una carga
+     */
+    boolean loadChildrenIfNeeded() {
+        final SideMenuChildLoader loader;
+        synchronized (this) {
+            if (!needsChildren()) return false;
+            childrenLoading = true;
+            loader = childLoader;
+        }
+        fireChanged(); // Muestra el indicador de carga
+        
+        SideMenuExecutors.background().execute(() -> {
+            try {
+                List<SideMenuItem> loaded = loader.loadChildren(this);
+                if (loader == childLoader) { // Se descarta si cambió el cargador
+                    insertLoadedChildren(loaded != null ? loaded : new ArrayList<>());
+                    childrenLoadedAt = System.nanoTime();
+                    childrenLoaded = true;
+                }
+            } catch (Exception e) {
+                System.err.println("Error cargando los hijos de " + getText() + ": " + e.getMessage());
+            } finally {
+                childrenLoading = false;
+                fireChanged();
+            }
+        });
+        return true;
+    }
+    
+    /**
+     * Sustituye los hijos por los cargados, en lotes de LOAD_CHUNK para que
+     * el menú muestre los primeros sin esperar al resto. Los hijos
+     * anteriores se quitan en el mismo lote que el primer grupo.
+     */
+    private void insertLoadedChildren(List<SideMenuItem> loaded) {
+        int start = 0;
+        do {
+            int end = Math.min(start + LOAD_CHUNK, loaded.size());
+            SideMenuModel owner = getModel();
+            if (owner != null) {
+                owner.beginUpdate();
+            }
+            try {
+                if (start == 0) {
+                    for (int i = getChildCount() - 1; i >= 0; i--) {
+                        removeChild(i);
+                    }
+                }
+                for (int i = start; i < end; i++) {
+                    addChild(loaded.get(i));
+                }
+            } finally {
+                if (owner != null) {
+                    owner.endUpdate();
+                }
+            }
+            start = end;
+        } while (start < loaded.size());
+    }
+    
+    /**
+     * Obtiene el ítem padre, o null si es un ítem de nivel superior
+     */
+    public SideMenuItem getParent() {
+        return parent;
+    }
+    
+    /**
+     * Obtiene el modelo al que pertenece el árbol de este ítem, o null
+     */
+    SideMenuModel getModel() {
+        SideMenuItem root = this;
+        while (root.parent != null) {
+            root = root.parent;
+        }
+        return root.model;
+    }
+    
+    // Llamados por SideMenuModel al agregar o quitar un ítem de nivel superior
+    void attach(SideMenuModel model) {
+        this.model = model;
+        this.parent = null;
+    }
+    
+    void detach(SideMenuModel model) {
+        if (this.model == model) {
+            this.model = null;
+        }
+    }
+    
+    /**
+     * Notifica al modelo que cambió alguna propiedad de este ítem
+     */
+    private void fireChanged() {
+        SideMenuModel owner = getModel();
+        if (owner != null) {
+            owner.itemChanged(this);
+        } else {
+            invalidateSnapshot();
+        }
+    }
+    
+    // Nodo de la última copia inmutable; las copias siguientes lo reutilizan
+    // mientras no cambien el ítem ni sus descendientes
+    
+    SideMenuModelSnapshot.Node getSnapshotNode() {
+        return snapshotNode;
+    }
+    
+    void setSnapshotNode(SideMenuModelSnapshot.Node snapshotNode) {
+        this.snapshotNode = snapshotNode;
+    }
+    
+    /**
+     * Descarta el nodo copiado de este ítem y de sus ancestros. Se llama con
+     * el bloqueo del modelo tomado. Si un ítem no tiene nodo, sus ancestros
+     * tampoco lo tienen (cada nodo se crea junto con los de sus hijos).
+     */
+    void invalidateSnapshot() {
+        for (SideMenuItem item = this; item != null && item.snapshotNode != null; item = item.parent) {
+            item.snapshotNode = null;
         }
     }
     
@@ -106,8 +466,9 @@ public class SideMenuItem implements Serializable {
     }
     
     public SideMenuItem getChild(int index) {
-        if (index >= 0 && index < children.size()) {
-            return children.get(index);
+        List<SideMenuItem> current = children;
+        if (index >= 0 && index < current.size()) {
+            return current.get(index);
         }
         return null;
     }
@@ -122,10 +483,17 @@ public class SideMenuItem implements Serializable {
     
     public void setExpanded(boolean expanded) {
         this.expanded = expanded;
+        fireChanged();
     }
     
     public void toggleExpanded() {
-        this.expanded = !this.expanded;
+        SideMenuModel owner = lockModel();
+        try {
+            this.expanded = !this.expanded; // Atómico respecto a otros cambios del árbol
+            fireChanged();
+        } finally {
+            unlock(owner);
+        }
     }
     
     public int getLevel() {
@@ -133,7 +501,18 @@ public class SideMenuItem implements Serializable {
     }
     
     public void setLevel(int level) {
-        this.level = level;
+        if (this.level != level) {
+            this.level = level;
+            snapshotNode = null; // Los ancestros los descarta quien lo mueve
+        }
+    }
+    
+    /**
+     * Obtiene la clave única del ítem. La clave no cambia durante la vida del
+     * ítem y es la que define su identidad (equals/hashCode).
+     */
+    public String getKey() {
+        return key;
     }
     
     // Getters y Setters originales
@@ -143,14 +522,58 @@ public class SideMenuItem implements Serializable {
     
     public void setText(String text) {
         this.text = text;
+        fireChanged();
     }
     
-    public ImageIcon getIcon() {
+    /**
+     * Obtiene el icono del ítem. La imagen se decodifica la primera vez que
+     * se solicita, no al crear el ítem; si la ruta no se encuentra pero está
+     * en el paquete de iconos se toma de allí.
+     */
+    public synchronized ImageIcon getIcon() {
+        if (!iconDecoded && icon == null) {
+            URL url = getIconUrl();
+            if (url != null) {
+                icon = new ImageIcon(url);
+            } else {
+                BufferedImage bundled = SideMenuIconBundle.get().getLargestImage(iconPath);
+                if (bundled != null) {
+                    icon = new ImageIcon(bundled);
+                }
+            }
+        }
+        iconDecoded = true;
         return icon;
     }
     
     public void setIcon(ImageIcon icon) {
-        this.icon = icon;
+        synchronized (this) {
+            this.icon = icon;
+            this.iconDecoded = true;
+            this.iconAssigned = icon != null;
+        }
+        fireChanged();
+    }
+    
+    /**
+     * Icono asignado con setIcon, o null si el icono viene de la ruta o URL
+     */
+    synchronized ImageIcon getAssignedIcon() {
+        return iconAssigned ? icon : null;
+    }
+    
+    /**
+     * Devuelve el icono sin decodificarlo (null si aún no se ha cargado)
+     */
+    synchronized ImageIcon peekIcon() {
+        return icon;
+    }
+    
+    /**
+     * Indica si el ítem tiene una URL de icono que todavía no se ha decodificado
+     */
+    synchronized boolean isIconPending() {
+        return !iconDecoded && icon == null && getIconUrl() != null;
     }
     
     public String getTooltip() {
@@ -159,6 +582,7 @@ public class SideMenuItem implements Serializable {
     
     public void setTooltip(String tooltip) {
         this.tooltip = tooltip;
+        fireChanged();
     }
     
     public boolean isEnabled() {
@@ -167,6 +591,7 @@ public class SideMenuItem implements Serializable {
     
     public void setEnabled(boolean enabled) {
         this.enabled = enabled;
+        fireChanged();
     }
 
     public boolean isShown() {
@@ -175,6 +600,7 @@ public class SideMenuItem implements Serializable {
 
     public void setShown(boolean shown) {
         this.shown = shown;
+        fireChanged();
     }
     
     public Object getUserData() {
@@ -183,18 +609,34 @@ public class SideMenuItem implements Serializable {
     
     public void setUserData(Object userData) {
         this.userData = userData;
+        fireChanged();
     }
     
+    /**
+     * URL del icono, resuelta a partir de la ruta la primera vez que se pide.
+     * Es null si la ruta no existe o si el icono está en el paquete de iconos.
+     */
     public URL getIconUrl() {
+        if (!iconUrlResolved) {
+            iconUrl = resolveUrl(iconPath);
+            iconUrlResolved = true;
+        }
         return iconUrl;
     }
 
     public void setIconUrl(URL iconUrl) {
         this.iconUrl = iconUrl;
+        this.iconUrlResolved = true;
     }
     
     public void setIconPath(String iconPath) {
-        this.iconPath = iconPath;
+        SideMenuModel owner = lockModel();
+        try {
+            this.iconPath = iconPath;
+            invalidateSnapshot();
+        } finally {
+            unlock(owner);
+        }
     }
     
     public String getIconPath() {
@@ -213,12 +655,12 @@ public class SideMenuItem implements Serializable {
         if (obj == null || getClass() != obj.getClass()) return false;
         
         SideMenuItem that = (SideMenuItem) obj;
-        return text != null ? text.equals(that.text) : that.text == null;
+        return key.equals(that.key);
     }
     
     @Override
     public int hashCode() {
-        return text != null ? text.hashCode() : 0;
+        return key.hashCode();
     }
     
     /**
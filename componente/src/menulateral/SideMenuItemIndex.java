@@ -0,0 +1,322 @@
+package menulateral;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Índice hash de los ítems de un SideMenuModel (incluyendo los anidados).
+ * Lo mantiene el propio modelo en cada cambio, de modo que las búsquedas no
+ * recorren el árbol. Guarda también la posición de cada ítem entre sus
+ * hermanos: agregar al final la mantiene al día y los demás cambios solo
+ * invalidan las posiciones desde el punto modificado.
+ * <p>
+ * Los cambios llegan con el bloqueo del modelo tomado, pero el índice se
+ * protege con su propio monitor: las búsquedas solo esperan a que termine
+ * la actualización del índice, no el cambio completo del modelo.
+ */
+class SideMenuItemIndex {
+
+    // Valores con los que se indexó cada ítem, para poder desindexarlo, y
+    // su posición entre sus hermanos
+    private static final class Entry {
+        String text;
+        Object userData;
+        int position = -1;
+    }
+
+    private final Map<SideMenuItem, Entry> entries = new IdentityHashMap<>();
+    private final Map<String, SideMenuItem> byKey = new HashMap<>();
+    private final Map<String, List<SideMenuItem>> byText = new HashMap<>();
+    private final Map<Object, SideMenuItem> byUserData = new HashMap<>();
+    private final SideMenuPrefixTrie byWordPrefix = new SideMenuPrefixTrie();
+
+    // Las claves se indexan siempre (validan los ítems nuevos); el texto y
+    // userData solo a partir de la primera búsqueda que los usa (indexText)
+    private boolean textIndexed;
+
+    // Por padre (null = nivel superior), cuántas de las primeras posiciones
+    // guardadas en las entradas de sus hijos siguen siendo válidas
+    private final Map<SideMenuItem, Integer> validPositions = new IdentityHashMap<>();
+
+    SideMenuItemIndex(List<SideMenuItem> roots) {
+        for (SideMenuItem root : roots) {
+            addTree(root);
+        }
+    }
+
+    /**
+     * Indexa un ítem y todos sus descendientes
+     */
+    synchronized void addTree(SideMenuItem item) {
+        add(item);
+        for (int i = 0; i < item.getChildCount(); i++) {
+            addTree(item.getChild(i));
+        }
+    }
+
+    /**
+     * Quita del índice un ítem y todos sus descendientes
+     */
+    synchronized void removeTree(SideMenuItem item) {
+        remove(item);
+        for (int i = 0; i < item.getChildCount(); i++) {
+            removeTree(item.getChild(i));
+        }
+    }
+
+    /**
+     * Vuelve a indexar un ítem cuyas propiedades cambiaron
+     */
+    synchronized void update(SideMenuItem item) {
+        Entry entry = entries.get(item);
+        if (entry == null || !textIndexed) return;
+        if (entry.text != null ? entry.text.equals(item.getText()) : item.getText() == null) {
+            if (entry.userData != null ? entry.userData.equals(item.getUserData()) : item.getUserData() == null) {
+                return; // Nada indexado cambió
+            }
+        }
+        removeText(item, entry);
+        addText(item, entry);
+    }
+
+    /**
+     * Comprueba que ninguna clave del subárbol esté ya en el índice ni se
+     * repita dentro del propio subárbol. Se llama antes de agregarlo, para
+     * que un error no deje el modelo a medio modificar.
+     *
+     * @throws IllegalArgumentException si alguna clave está repetida
+     */
+    synchronized void checkNewTree(SideMenuItem item) {
+        if (item.getChildCount() == 0) {
+            if (byKey.containsKey(item.getKey())) {
+                throw duplicateKey(item.getKey());
+            }
+            return;
+        }
+        checkNewTree(item, new HashSet<>());
+    }
+
+    private void checkNewTree(SideMenuItem item, Set<String> keys) {
+        if (byKey.containsKey(item.getKey()) || !keys.add(item.getKey())) {
+            throw duplicateKey(item.getKey());
+        }
+        for (int i = 0; i < item.getChildCount(); i++) {
+            checkNewTree(item.getChild(i), keys);
+        }
+    }
+
+    private static IllegalArgumentException duplicateKey(String key) {
+        return new IllegalArgumentException("Clave repetida en el modelo: \"" + key + "\"");
+    }
+
+    // Posiciones entre hermanos
+
+    /**
+     * Registra un ítem insertado en la posición dada de su padre
+     */
+    synchronized void inserted(SideMenuItem parent, int index, SideMenuItem item) {
+        int valid = validPositions.getOrDefault(parent, 0);
+        if (index == valid) {
+            entries.get(item).position = index; // Al final de lo válido: no desplaza nada
+            validPositions.put(parent, valid + 1);
+        } else {
+            invalidatePositions(parent, index);
+        }
+    }
+
+    /**
+     * Registra que se quitó el ítem que estaba en la posición dada
+     */
+    synchronized void removed(SideMenuItem parent, int index) {
+        invalidatePositions(parent, index);
+    }
+
+    /**
+     * Registra que un ítem pasó de una posición a otra del mismo padre
+     */
+    synchronized void moved(SideMenuItem parent, int fromIndex, int toIndex) {
+        invalidatePositions(parent, Math.min(fromIndex, toIndex));
+    }
+
+    private void invalidatePositions(SideMenuItem parent, int from) {
+        Integer valid = validPositions.get(parent);
+        if (valid != null && valid > from) {
+            validPositions.put(parent, from);
+        }
+    }
+
+    /**
+     * Posición del ítem en la lista de sus hermanos. Solo recorre las
+     * posiciones invalidadas desde el último cambio, y las guarda.
+     *
+     * @param siblings Lista actual de los hijos del padre del ítem
+     * @return La posición, o -1 si el ítem no está en esa lista
+     */
+    synchronized int positionOf(SideMenuItem item, List<SideMenuItem> siblings) {
+        Entry entry = entries.get(item);
+        if (entry == null) return -1;
+        SideMenuItem parent = item.getParent();
+        int valid = validPositions.getOrDefault(parent, 0);
+        int position = entry.position;
+        if (position < 0 || position >= valid || position >= siblings.size() || siblings.get(position) != item) {
+            // Si la posición parecía válida, otro hilo cambió la lista y aún
+            // no actualizó el índice: se recorre entera
+            int i = (position >= 0 && position < valid) ? 0 : Math.min(valid, siblings.size());
+            for (; i < siblings.size(); i++) {
+                Entry sibling = entries.get(siblings.get(i));
+                if (sibling == null) break; // Agregado por un cambio que aún no llegó al índice
+                sibling.position = i;
+            }
+            validPositions.put(parent, i);
+            position = entry.position;
+        }
+        return (position >= 0 && position < siblings.size() && siblings.get(position) == item) ? position : -1;
+    }
+
+    /**
+     * Indexa el texto y userData de todos los ítems, en el orden del árbol,
+     * si aún no se hizo. Se llama antes de las búsquedas que los usan.
+     */
+    synchronized void indexText(List<SideMenuItem> roots) {
+        if (textIndexed) return;
+        textIndexed = true;
+        for (SideMenuItem root : roots) {
+            addTextTree(root);
+        }
+    }
+
+    private void addTextTree(SideMenuItem item) {
+        Entry entry = entries.get(item);
+        if (entry != null) { // Si no, se indexará cuando llegue su cambio
+            addText(item, entry);
+        }
+        for (int i = 0; i < item.getChildCount(); i++) {
+            addTextTree(item.getChild(i));
+        }
+    }
+
+    synchronized boolean isTextIndexed() {
+        return textIndexed;
+    }
+
+    synchronized boolean contains(SideMenuItem item) {
+        return entries.containsKey(item);
+    }
+
+    synchronized SideMenuItem findByKey(String key) {
+        return byKey.get(key);
+    }
+
+    /**
+     * Primer ítem indexado con ese texto, o null
+     */
+    synchronized SideMenuItem findByText(String text) {
+        List<SideMenuItem> items = byText.get(text);
+        return (items != null) ? items.get(0) : null;
+    }
+
+    /**
+     * Todos los ítems con ese texto
+     */
+    synchronized List<SideMenuItem> findAllByText(String text) {
+        List<SideMenuItem> items = byText.get(text);
+        return (items != null) ? new ArrayList<>(items) : new ArrayList<>();
+    }
+
+    synchronized SideMenuItem findByUserData(Object userData) {
+        return byUserData.get(userData);
+    }
+
+    /**
+     * Ítems cuyo texto tiene, para cada término, una palabra que empieza por
+     * él. Se busca en el árbol de prefijos el término más largo (el más
+     * selectivo) y con los demás solo se filtran esos candidatos.
+     *
+     * @param terms Términos normalizados; ninguno vacío
+     */
+    synchronized List<SideMenuItem> findByWordPrefixes(List<String> terms) {
+        String longest = terms.get(0);
+        for (String term : terms) {
+            if (term.length() > longest.length()) {
+                longest = term;
+            }
+        }
+        List<SideMenuItem> result = new ArrayList<>();
+        for (SideMenuItem item : byWordPrefix.findByPrefix(longest)) {
+            if (terms.size() == 1 || SideMenuPrefixTrie.matches(entries.get(item).text, terms)) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private void add(SideMenuItem item) {
+        if (entries.containsKey(item)) return;
+        if (byKey.containsKey(item.getKey())) {
+            throw duplicateKey(item.getKey());
+        }
+
+        Entry entry = new Entry();
+        entries.put(item, entry);
+        byKey.put(item.getKey(), item);
+        if (textIndexed) {
+            addText(item, entry);
+        }
+    }
+
+    private void remove(SideMenuItem item) {
+        Entry entry = entries.remove(item);
+        if (entry == null) return;
+        validPositions.remove(item);
+
+        if (byKey.get(item.getKey()) == item) {
+            byKey.remove(item.getKey());
+        }
+        if (textIndexed) {
+            removeText(item, entry);
+        }
+    }
+
+
+    private void addText(SideMenuItem item, Entry entry) {
+        entry.text = item.getText();
+        entry.userData = item.getUserData();
+        byText.computeIfAbsent(entry.text, k -> new ArrayList<>(1)).add(item);
+        byWordPrefix.add(entry.text, item);
+        if (entry.userData != null) {
+            byUserData.putIfAbsent(entry.userData, item);
+        }
+    }
+
+    private void removeText(SideMenuItem item, Entry entry) {
+        List<SideMenuItem> sameText = byText.get(entry.text);
+        if (sameText != null) {
+            removeByIdentity(sameText, item);
+            if (sameText.isEmpty()) {
+                byText.remove(entry.text);
+            }
+        }
+        byWordPrefix.remove(entry.text, item);
+        if (entry.userData != null && byUserData.get(entry.userData) == item) {
+            byUserData.remove(entry.userData);
+        }
+    }
+
+    private static void removeByIdentity(List<SideMenuItem> items, SideMenuItem item) {
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i) == item) {
+                items.remove(i);
+                return;
+            }
+        }
+    }
+}
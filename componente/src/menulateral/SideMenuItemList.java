@@ -0,0 +1,142 @@
+package menulateral;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Lista inmutable de ítems para los hijos de un SideMenuItem y los ítems de
+ * nivel superior del modelo. Cada cambio devuelve una lista nueva, así que
+ * un lector puede recorrerla sin bloquear mientras otro hilo modifica el
+ * modelo. Agregar al final reutiliza el arreglo (las posiciones ya
+ * publicadas nunca se modifican), de modo que cargar ítems uno a uno sigue
+ * siendo lineal.
+ */
+final class SideMenuItemList extends AbstractList<SideMenuItem> implements RandomAccess, Serializable {
+
+    static final SideMenuItemList EMPTY = new SideMenuItemList(new Buffer(new SideMenuItem[0], 0), 0);
+
+    // Arreglo compartido por las listas que solo difieren en ítems agregados al final
+    private static final class Buffer {
+        final SideMenuItem[] elements;
+        int used; // Posiciones ya ocupadas por alguna lista
+
+        Buffer(SideMenuItem[] elements, int used) {
+            this.elements = elements;
+            this.used = used;
+        }
+    }
+
+    private final transient Buffer buffer;
+    private final int size;
+
+    private SideMenuItemList(Buffer buffer, int size) {
+        this.buffer = buffer;
+        this.size = size;
+    }
+
+    private static SideMenuItemList wrap(SideMenuItem[] elements) {
+        return elements.length == 0 ? EMPTY : new SideMenuItemList(new Buffer(elements, elements.length), elements.length);
+    }
+
+    /**
+     * Lista inmutable con los ítems dados (la misma si ya es inmutable)
+     */
+    static SideMenuItemList copyOf(Collection<? extends SideMenuItem> items) {
+        if (items instanceof SideMenuItemList) {
+            return (SideMenuItemList) items;
+        }
+        return wrap(items.toArray(new SideMenuItem[0]));
+    }
+
+    @Override
+    public SideMenuItem get(int index) {
+        Objects.checkIndex(index, size);
+        return buffer.elements[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Copia con el ítem agregado al final
+     */
+    SideMenuItemList appended(SideMenuItem item) {
+        synchronized (buffer) {
+            // Solo si ninguna otra lista ocupó ya la posición siguiente
+            if (buffer.used == size && size < buffer.elements.length) {
+                buffer.elements[size] = item;
+                buffer.used++;
+                return new SideMenuItemList(buffer, size + 1);
+            }
+        }
+        SideMenuItem[] elements = new SideMenuItem[Math.max(8, size + (size >> 1) + 1)];
+        System.arraycopy(buffer.elements, 0, elements, 0, size);
+        elements[size] = item;
+        return new SideMenuItemList(new Buffer(elements, size + 1), size + 1);
+    }
+
+    /**
+     * Copia con el ítem insertado en la posición dada
+     */
+    SideMenuItemList inserted(int index, SideMenuItem item) {
+        if (index == size) {
+            return appended(item);
+        }
+        Objects.checkIndex(index, size);
+        SideMenuItem[] elements = new SideMenuItem[size + 1];
+        System.arraycopy(buffer.elements, 0, elements, 0, index);
+        elements[index] = item;
+        System.arraycopy(buffer.elements, index, elements, index + 1, size - index);
+        return wrap(elements);
+    }
+
+    /**
+     * Copia sin el ítem de la posición dada
+     */
+    SideMenuItemList removed(int index) {
+        Objects.checkIndex(index, size);
+        SideMenuItem[] elements = new SideMenuItem[size - 1];
+        System.arraycopy(buffer.elements, 0, elements, 0, index);
+        System.arraycopy(buffer.elements, index + 1, elements, index, size - index - 1);
+        return wrap(elements);
+    }
+
+    /**
+     * Copia con el ítem de la posición dada sustituido
+     */
+    SideMenuItemList replaced(int index, SideMenuItem item) {
+        Objects.checkIndex(index, size);
+        SideMenuItem[] elements = Arrays.copyOf(buffer.elements, size);
+        elements[index] = item;
+        return wrap(elements);
+    }
+
+    /**
+     * Copia con un ítem movido de una posición a otra
+     */
+    SideMenuItemList moved(int fromIndex, int toIndex) {
+        Objects.checkIndex(fromIndex, size);
+        Objects.checkIndex(toIndex, size);
+        SideMenuItem[] elements = Arrays.copyOf(buffer.elements, size);
+        SideMenuItem item = elements[fromIndex];
+        if (fromIndex < toIndex) {
+            System.arraycopy(elements, fromIndex + 1, elements, fromIndex, toIndex - fromIndex);
+        } else {
+            System.arraycopy(elements, toIndex, elements, toIndex + 1, fromIndex - toIndex);
+        }
+        elements[toIndex] = item;
+        return wrap(elements);
+    }
+
+    // Se serializa como una ArrayList para no cambiar el formato guardado
+    private Object writeReplace() {
+        return new ArrayList<>(this);
+    }
+}
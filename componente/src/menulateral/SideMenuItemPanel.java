@@ -3,7 +3,7 @@ package menulateral;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.awt.image.BufferedImage;
+import java.util.Objects;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.LineBorder;
@@ -27,14 +27,20 @@ public class SideMenuItemPanel extends JPanel {
     private Color selectedColor = new Color(80, 80, 80);
     private Color textColor = Color.BLACK;
     private Color disabledColor = new Color(120, 120, 120);
-    private ExpandCollapseListener expandListener;
     
     private boolean menuFullyExpanded = false;
-    
-    // Interfaz para notificar expansión/colapso
-    public interface ExpandCollapseListener {
-        void onExpandCollapse(SideMenuItem item);
-    }
+    private boolean asyncIconLoading = true;
+    private double deviceScale = 1.0; // Escala de la pantalla para los iconos
+    
+    // Último estado del ítem mostrado en el panel
+    private String renderedText;
+    private ImageIcon renderedIcon;
+    private String renderedTooltip;
+    private boolean renderedEnabled;
+    private boolean renderedHasChildren;
+    private boolean renderedExpanded;
+    private boolean renderedLoading;
+    private int renderedLevel;
     
     public SideMenuItemPanel(SideMenuItem item, int iconLabelWidth) {
         this.menuItem = item;
@@ -62,10 +68,37 @@ public class SideMenuItemPanel extends JPanel {
             setPreferredSize(new Dimension(Integer.MAX_VALUE, preferredHeight));
             setMaximumSize(new Dimension(Integer.MAX_VALUE, preferredHeight));
         }
+        updateIndentation();
+        setCursor(new Cursor(Cursor.HAND_CURSOR));
+    }
+    
+    private void updateIndentation() {
         // Añadir indentación basada en el nivel del ítem
         int leftPadding = menuItem.getLevel() * 15; // 15px por nivel
         setBorder(new EmptyBorder(5, leftPadding, 5, 10));
-        setCursor(new Cursor(Cursor.HAND_CURSOR));
+    }
+    
+    /**
+     * Vuelve a pintar el contenido solo si el ítem cambió desde la última vez
+     * @return true si el panel se actualizó
+     */
+    public boolean refreshIfChanged() {
+        if (renderedLevel != menuItem.getLevel()) {
+            updateIndentation();
+        }
+        if (Objects.equals(renderedText, menuItem.getText())
+                && renderedIcon == menuItem.peekIcon()
+                && Objects.equals(renderedTooltip, menuItem.getTooltip())
+                && renderedEnabled == menuItem.isEnabled()
+                && renderedHasChildren == menuItem.isHasChildren()
+                && renderedExpanded == menuItem.isExpanded()
+                && renderedLoading == menuItem.isChildrenLoading()
+                && renderedLevel == menuItem.getLevel()) {
+            return false;
+        }
+        updateContent();
+        updateExpandCollapseVisibility();
+        return true;
     }
     
     /**
@@ -134,33 +167,18 @@ public class SideMenuItemPanel extends JPanel {
     }
     
     private void setupEventListeners() {
+        // El estado hover lo controla SideMenuComponent con setHovered()
         MouseAdapter mouseHandler = new MouseAdapter() {
-            @Override
-            public void mouseEntered(MouseEvent e) {
-                if (menuItem.isEnabled()) {
-                    isHovered = true;
-                    repaint();
-                    textLabel.setForeground(textHoverColor);
-                }
-            }
-            
-            @Override
-            public void mouseExited(MouseEvent e) {
-                isHovered = false;
-                repaint();
-                textLabel.setForeground(textColor);
-            }
-            
             @Override
             public void mouseClicked(MouseEvent e) {
                 if (menuItem.isEnabled()) {
                     // Si el clic fue en el indicador de expansión o si tiene hijos
                     if (menuItem.isHasChildren()) {
                         menuItem.toggleExpanded();
-                        updateExpandCollapseIcon();
-                        if (expandListener != null) {
-                            expandListener.onExpandCollapse(menuItem);
+                        if (menuItem.isExpanded()) {
+                            menuItem.loadChildrenIfNeeded(); // Hijos diferidos, en segundo plano
                         }
+                        updateExpandCollapseIcon();
                     } else {
                         // Acción normal para ítems sin hijos
                         fireMenuItemClicked();
@@ -172,72 +190,47 @@ public class SideMenuItemPanel extends JPanel {
         addMouseListener(mouseHandler);
     }
     
-    public void setExpandCollapseListener(ExpandCollapseListener listener) {
-        this.expandListener = listener;
-    }
-    
     private void updateExpandCollapseIcon() {
         if (!menuItem.isHasChildren()) {
             expandCollapseLabel.setIcon(null);
             return;
         }
         
-        // Crear icono de flecha según estado expandido/colapsado
-        ImageIcon icon = menuItem.isExpanded() ? 
-                createArrowIcon(10, 6, true) : 
-                createArrowIcon(6, 10, false);
+        // Flecha según estado expandido/colapsado (o carga de hijos), desde la caché compartida
+        SideMenuIconAtlas.Kind kind = menuItem.isChildrenLoading() ? SideMenuIconAtlas.Kind.LOADING
+                : menuItem.isExpanded() ? SideMenuIconAtlas.Kind.ARROW_DOWN : SideMenuIconAtlas.Kind.ARROW_RIGHT;
+        ImageIcon icon = SideMenuIconAtlas.get(kind, 16, textColor, deviceScale);
         
         expandCollapseLabel.setIcon(icon);
     }
     
-    private ImageIcon createArrowIcon(int width, int height, boolean down) {
-        BufferedImage img = new BufferedImage(16, 16, BufferedImage.TYPE_INT_ARGB);
-        Graphics2D g2d = img.createGraphics();
-        
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        g2d.setColor(textColor);
-        
-        int x = (16 - width) / 2;
-        int y = (16 - height) / 2;
-        
-        if (down) {
-            // Flecha hacia abajo (▼)
-            int[] xPoints = {x, x + width/2, x + width};
-            int[] yPoints = {y, y + height, y};
-            g2d.fillPolygon(xPoints, yPoints, 3);
-        } else {
-            // Flecha hacia la derecha (▶)
-            int[] xPoints = {x, x + width, x};
-            int[] yPoints = {y, y + height/2, y + height};
-            g2d.fillPolygon(xPoints, yPoints, 3);
-        }
-        
-        g2d.dispose();
-        return new ImageIcon(img);
-    }
-    
     private void updateContent() {
         // Actualizar icono
-        if (menuItem.getIcon() != null) {
+        if (asyncIconLoading && menuItem.isIconPending()) {
+            // Mostrar el icono por defecto mientras se carga en segundo plano
+            setDefaultIcon();
+            final SideMenuItem requestedItem = menuItem;
+            SideMenuIconLoader.load(requestedItem, 24, deviceScale, () -> {
+                if (menuItem == requestedItem) {
+                    iconLoaded();
+                }
+            });
+        } else {
             try {
-                // Redimensionar icono si es necesario
-                ImageIcon originalIcon = menuItem.getIcon();
-                Image img = originalIcon.getImage();
-                
-                // Redimensionar manteniendo proporción
-                Image scaledImg = img.getScaledInstance(24, 24, Image.SCALE_SMOOTH);
-                ImageIcon scaledIcon = new ImageIcon(scaledImg);
-                
-                iconLabel.setIcon(scaledIcon);
-                iconLabel.setText(""); // Limpiar texto si hay icono
+                // Icono redimensionado desde la caché compartida; los iconos
+                // empaquetados se toman del paquete sin decodificar el archivo
+                ImageIcon scaledIcon = SideMenuIconCache.getShared().getScaledIcon(menuItem, 24, deviceScale);
+                if (scaledIcon != null) {
+                    iconLabel.setIcon(scaledIcon);
+                    iconLabel.setText(""); // Limpiar texto si hay icono
+                } else {
+                    setDefaultIcon();
+                }
             } catch (Exception e) {
                 System.err.println("Error procesando icono para " + menuItem.getText() + ": " + e.getMessage());
                 // Si falla, mostrar un icono por defecto o texto
                 setDefaultIcon();
             }
-        } else {
-            // Si no hay icono, crear uno por defecto o mostrar texto
-            setDefaultIcon();
         }
         
         // Actualizar texto
@@ -253,32 +246,35 @@ public class SideMenuItemPanel extends JPanel {
         // Actualizar indicador de expansión
         updateExpandCollapseIcon();
         
+        renderedText = menuItem.getText();
+        renderedIcon = menuItem.peekIcon();
+        renderedTooltip = menuItem.getTooltip();
+        renderedEnabled = menuItem.isEnabled();
+        renderedHasChildren = menuItem.isHasChildren();
+        renderedExpanded = menuItem.isExpanded();
+        renderedLoading = menuItem.isChildrenLoading();
+        renderedLevel = menuItem.getLevel();
+        
         revalidate();
         repaint();
     }
     
-    private void setDefaultIcon() {
-        // Crear un icono por defecto simple
-        ImageIcon defaultIcon = createDefaultIcon(24, new Color(150, 150, 150));
-        iconLabel.setIcon(defaultIcon);
-        iconLabel.setText("");
-    }
-    
     /**
-     * Crea un icono por defecto simple
+     * Sustituye el icono provisional por el real; solo se repinta esta fila
      */
-    private ImageIcon createDefaultIcon(int size, Color color) {
-        java.awt.image.BufferedImage img = new java.awt.image.BufferedImage(size, size, java.awt.image.BufferedImage.TYPE_INT_ARGB);
-        Graphics2D g2d = img.createGraphics();
-        
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        g2d.setColor(color);
-        
-        // Dibujar un círculo simple como icono por defecto
-        g2d.fillOval(2, 2, size - 4, size - 4);
-        
-        g2d.dispose();
-        return new ImageIcon(img);
+    private void iconLoaded() {
+        ImageIcon scaledIcon = SideMenuIconCache.getShared().getScaledIcon(menuItem, 24, deviceScale);
+        if (scaledIcon != null) {
+            iconLabel.setIcon(scaledIcon);
+        }
+        renderedIcon = menuItem.peekIcon();
+        iconLabel.repaint();
+    }
+    
+    private void setDefaultIcon() {
+        // Icono por defecto simple, compartido por todos los paneles
+        iconLabel.setIcon(SideMenuIconAtlas.get(SideMenuIconAtlas.Kind.DEFAULT, 24, SideMenuIconAtlas.DEFAULT_ICON_COLOR, deviceScale));
+        iconLabel.setText("");
     }
     
     private void updateEnabledState() {
@@ -315,7 +311,26 @@ public class SideMenuItemPanel extends JPanel {
     
     public void setMenuItem(SideMenuItem menuItem) {
         this.menuItem = menuItem;
+        isHovered = false;
+        updateIndentation();
         updateContent();
+        updateExpandCollapseVisibility();
+    }
+    
+    public boolean isHovered() {
+        return isHovered;
+    }
+    
+    /**
+     * Marca el panel como la fila bajo el mouse; solo se repinta si el
+     * estado cambia
+     */
+    public void setHovered(boolean hovered) {
+        hovered = hovered && menuItem.isEnabled();
+        if (hovered == isHovered) return;
+        isHovered = hovered;
+        textLabel.setForeground(hovered ? textHoverColor : textColor);
+        repaint();
     }
     
     public boolean isSelected() {
@@ -360,6 +375,32 @@ public class SideMenuItemPanel extends JPanel {
         textLabel.setForeground(menuItem.isEnabled() ? textColor : disabledColor);
     }
     
+    public boolean isAsyncIconLoading() {
+        return asyncIconLoading;
+    }
+    
+    /**
+     * Si es true, los iconos que aún no se han decodificado se cargan en
+     * segundo plano mostrando el icono por defecto mientras tanto
+     */
+    public void setAsyncIconLoading(boolean asyncIconLoading) {
+        this.asyncIconLoading = asyncIconLoading;
+    }
+    
+    public double getDeviceScale() {
+        return deviceScale;
+    }
+    
+    /**
+     * Escala de la pantalla con la que se rasterizan los iconos; solo vuelve
+     * a generar los iconos si la escala cambió
+     */
+    public void setDeviceScale(double deviceScale) {
+        if (Double.compare(this.deviceScale, deviceScale) == 0) return;
+        this.deviceScale = deviceScale;
+        updateContent();
+    }
+    
     public Font getOpcionesFont() {
         return opcionesFont;
     }
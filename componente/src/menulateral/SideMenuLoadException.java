@@ -0,0 +1,32 @@
+package menulateral;
+
+import java.io.IOException;
+
+/**
+ * Error en una definición de menú, con la posición donde se encontró
+ */
+public class SideMenuLoadException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int lineNumber;
+    private final int columnNumber;
+
+    /**
+     * @param lineNumber   Línea del error, o -1 si no se conoce
+     * @param columnNumber Columna del error, o -1 si no se conoce
+     */
+    public SideMenuLoadException(String message, int lineNumber, int columnNumber, Throwable cause) {
+        super("Línea " + lineNumber + ", columna " + columnNumber + ": " + message, cause);
+        this.lineNumber = lineNumber;
+        this.columnNumber = columnNumber;
+    }
+
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    public int getColumnNumber() {
+        return columnNumber;
+    }
+}
@@ -1,28 +1,128 @@
 package menulateral;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 import javax.swing.SwingUtilities;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 
 /**
- * Modelo de datos para el SideMenuComponent
+ * Modelo de datos para el SideMenuComponent.
+ * <p>
+ * Puede modificarse desde cualquier hilo: cada cambio (del modelo y de sus
+ * ítems) toma un bloqueo por modelo solo mientras se aplica, y las listas de
+ * ítems se reemplazan en lugar de modificarse, así que las lecturas no
+ * esperan a los cambios. Las búsquedas usan el índice, que tiene su propio
+ * bloqueo de corta duración. {@link #getSnapshot()} devuelve una copia
+ * inmutable y consistente del árbol completo. Los ítems que aún no
+ * pertenecen a un modelo deben construirse en un solo hilo.
  */
 public class SideMenuModel implements Serializable {
-    private List<SideMenuItem> items;
+    private volatile List<SideMenuItem> items; // Siempre una SideMenuItemList
     private List<ChangeListener> listeners;
     
+    private List<SideMenuModelListener> modelListeners;
+    
+    // Serializa los cambios del árbol; se toma en cada cambio, no durante un lote
+    private transient ReentrantLock lock;
+    
+    // Eventos del cambio en curso (con el bloqueo tomado) y lotes abiertos por hilo
+    private transient List<SideMenuModelEvent> pendingEvents;
+    private transient ThreadLocal<Batch> batches;
+    
+    // Índice de búsqueda (valida las claves nuevas y guarda las posiciones);
+    // se mantiene en cada cambio
+    private transient SideMenuItemIndex index;
+    
+    // Versión del árbol (aumenta con cada cambio) y última copia construida
+    private transient volatile long version;
+    private transient volatile SideMenuModelSnapshot snapshot;
+    
     public SideMenuModel() {
-        this.items = new ArrayList<>();
-        this.listeners = new ArrayList<>();
+        this.items = SideMenuItemList.EMPTY;
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.modelListeners = new CopyOnWriteArrayList<>();
+        this.lock = new ReentrantLock();
+        this.batches = new ThreadLocal<>();
+        this.index = new SideMenuItemIndex(items);
     }
     
+    /**
+     * Lote de cambios abierto por un hilo: sus eventos se entregan al cerrarlo
+     */
+    private static final class Batch {
+        int depth;
+        final List<SideMenuModelEvent> events = new ArrayList<>();
+    }
+    
+    /**
+     * Crea un modelo con los ítems dados sin generar eventos
+     */
+    SideMenuModel(List<SideMenuItem> items) {
+        this();
+        this.items = SideMenuItemList.copyOf(items);
+        this.index = new SideMenuItemIndex(this.items); // Rechaza claves repetidas
+        for (SideMenuItem item : this.items) {
+            item.attach(this);
+        }
+    }
+    
+    // Bloqueo del árbol, usado también por SideMenuItem para cambiar sus hijos
+    
+    void lock() {
+        lock.lock();
+    }
+    
+    void unlock() {
+        release();
+    }
+    
+    /**
+     * Suelta el bloqueo. Al soltar el más externo se envían los eventos del
+     * cambio, de modo que los listeners nunca leen el modelo mientras el
+     * cambio sigue bloqueado.
+     */
+    private void release() {
+        List<SideMenuModelEvent> events = null;
+        if (lock.getHoldCount() == 1 && pendingEvents != null) {
+            events = pendingEvents;
+            pendingEvents = null;
+        }
+        lock.unlock();
+        if (events != null) {
+            dispatch(events);
+        }
+    }
+    
+    private SideMenuItemList itemList() {
+        return (SideMenuItemList) items;
+    }
+    
+    /**
+     * Agrega un ítem al final
+     * 
+     * @throws IllegalArgumentException si alguna clave de su árbol ya está en el modelo
+     */
     public void addItem(SideMenuItem item) {
         if (item != null) {
-            items.add(item);
-            fireChangeEvent();
+            lock.lock();
+            try {
+                index.checkNewTree(item);
+                items = itemList().appended(item);
+                item.attach(this);
+                fireItemsInserted(null, items.size() - 1, item);
+            } finally {
+                release();
+            }
         }
     }
     
@@ -34,36 +134,87 @@ public class SideMenuModel implements Serializable {
         addItem(new SideMenuItem(text, iconPath));
     }
     
+    /**
+     * Agrega varios ítems enviando una sola notificación de cambio
+     */
+    public void addAll(Collection<? extends SideMenuItem> newItems) {
+        if (newItems == null) return;
+        
+        beginUpdate();
+        try {
+            for (SideMenuItem item : newItems) {
+                addItem(item);
+            }
+        } finally {
+            endUpdate();
+        }
+    }
+    
+    /**
+     * Inserta un ítem en la posición dada
+     * 
+     * @throws IllegalArgumentException si alguna clave de su árbol ya está en el modelo
+     */
     public void insertItem(int index, SideMenuItem item) {
-        if (item != null && index >= 0 && index <= items.size()) {
-            items.add(index, item);
-            fireChangeEvent();
+        if (item != null) {
+            lock.lock();
+            try {
+                if (index >= 0 && index <= items.size()) {
+                    this.index.checkNewTree(item);
+                    items = itemList().inserted(index, item);
+                    item.attach(this);
+                    fireItemsInserted(null, index, item);
+                }
+            } finally {
+                release();
+            }
         }
     }
     
     public void removeItem(int index) {
-        if (index >= 0 && index < items.size()) {
-            items.remove(index);
-            fireChangeEvent();
+        lock.lock();
+        try {
+            if (index >= 0 && index < items.size()) {
+                SideMenuItem removed = items.get(index);
+                items = itemList().removed(index);
+                removed.detach(this);
+                fireItemsRemoved(null, index, removed);
+            }
+        } finally {
+            release();
         }
     }
     
     public void removeItem(SideMenuItem item) {
-        if (items.remove(item)) {
-            fireChangeEvent();
+        lock.lock();
+        try {
+            removeItem(indexOf(item));
+        } finally {
+            release();
         }
     }
     
     public void removeAllItems() {
-        if (!items.isEmpty()) {
-            items.clear();
-            fireChangeEvent();
+        lock.lock();
+        try {
+            if (!items.isEmpty()) {
+                List<SideMenuItem> removed = items;
+                items = SideMenuItemList.EMPTY;
+                for (SideMenuItem item : removed) {
+                    item.detach(this);
+                }
+                fire(new SideMenuModelEvent(this, SideMenuModelEvent.Type.REMOVED, null,
+                        sequence(0, removed.size()), removed.toArray(new SideMenuItem[0])));
+            }
+        } finally {
+            release();
         }
     }
     
     public SideMenuItem getItem(int index) {
-        if (index >= 0 && index < items.size()) {
-            return items.get(index);
+        List<SideMenuItem> current = items;
+        if (index >= 0 && index < current.size()) {
+            return current.get(index);
         }
         return null;
     }
@@ -76,19 +227,130 @@ public class SideMenuModel implements Serializable {
         return new ArrayList<>(items);
     }
     
+    /**
+     * Lista inmutable de los ítems de nivel superior, sin copiarla
+     */
+    List<SideMenuItem> itemsView() {
+        return items;
+    }
+    
+    /**
+     * Sustituye todos los ítems
+     * 
+     * @throws IllegalArgumentException si hay claves repetidas entre los nuevos ítems
+     */
     public void setItems(List<SideMenuItem> items) {
-        this.items = new ArrayList<>(items != null ? items : new ArrayList<>());
-        fireChangeEvent();
+        SideMenuItemList newItems = SideMenuItemList.copyOf(items != null ? items : new ArrayList<>());
+        new SideMenuItemIndex(newItems); // Comprueba las claves antes de quitar nada
+        lock.lock(); // Un solo cambio: los eventos se envían juntos al soltarlo
+        try {
+            removeAllItems();
+            this.items = newItems;
+            for (SideMenuItem item : this.items) {
+                item.attach(this);
+            }
+            if (!this.items.isEmpty()) {
+                fire(new SideMenuModelEvent(this, SideMenuModelEvent.Type.INSERTED, null,
+                        sequence(0, this.items.size()), this.items.toArray(new SideMenuItem[0])));
+            }
+        } finally {
+            release();
+        }
     }
     
+    /**
+     * Posición de un ítem de nivel superior (igual por clave), o -1. El ítem
+     * y su posición se toman del índice, sin recorrer la lista.
+     */
     public int indexOf(SideMenuItem item) {
-        return items.indexOf(item);
+        if (item == null) return -1;
+        SideMenuItem found = index.findByKey(item.getKey());
+        return (found != null && found.getParent() == null) ? index.positionOf(found, items) : -1;
+    }
+    
+    /**
+     * Posición de un ítem del modelo entre sus hermanos, tomada del índice
+     */
+    int positionOf(SideMenuItem item) {
+        SideMenuItem parent = item.getParent();
+        return index.positionOf(item, parent != null ? parent.childList() : items);
+    }
+    
+    /**
+     * Comprueba, antes de agregarlo al árbol, que las claves de un ítem y
+     * sus descendientes no estén ya en el modelo. Se llama con el bloqueo tomado.
+     * 
+     * @throws IllegalArgumentException si alguna clave está repetida
+     */
+    void checkNewItem(SideMenuItem item) {
+        index.checkNewTree(item);
+    }
+    
+    // Actualizaciones por lotes
+    
+    /**
+     * Inicia un lote de cambios en este hilo. Hasta la llamada
+     * correspondiente a {@link #endUpdate()} no se notifica a los listeners;
+     * al cerrar el lote más externo se envía una única notificación si hubo
+     * cambios. Los lotes pueden anidarse.
+     * <p>
+     * El lote solo agrupa las notificaciones: no bloquea el modelo, así que
+     * los demás hilos (el EDT incluido) pueden leerlo y modificarlo mientras
+     * tanto.
+     */
+    public void beginUpdate() {
+        Batch batch = batches.get();
+        if (batch == null) {
+            batch = new Batch();
+            batches.set(batch);
+        }
+        batch.depth++;
+    }
+    
+    /**
+     * Cierra un lote abierto con {@link #beginUpdate()}. Debe llamarse desde
+     * el mismo hilo que abrió el lote.
+     * 
+     * @throws IllegalStateException si este hilo no tiene ningún lote abierto
+     */
+    public void endUpdate() {
+        Batch batch = batches.get();
+        if (batch == null) {
+            throw new IllegalStateException("endUpdate() sin beginUpdate()");
+        }
+        if (--batch.depth == 0) {
+            batches.remove();
+            if (!batch.events.isEmpty()) {
+                dispatch(batch.events); // Al cerrar el lote más externo se notifica una sola vez
+            }
+        }
+    }
+    
+    /**
+     * Indica si este hilo tiene un lote de cambios abierto
+     */
+    public boolean isUpdating() {
+        return batches.get() != null;
+    }
+    
+    /**
+     * Aplica todos los cambios dentro de un único lote
+     * 
+     * @param changes Cambios a aplicar sobre este modelo
+     */
+    public void update(Consumer<SideMenuModel> changes) {
+        beginUpdate();
+        try {
+            changes.accept(this);
+        } finally {
+            endUpdate();
+        }
     }
     
     // Listeners para notificar cambios
     public void addChangeListener(ChangeListener listener) {
-        if (listener != null && !listeners.contains(listener)) {
-            listeners.add(listener);
+        if (listener != null) {
+            ((CopyOnWriteArrayList<ChangeListener>) listeners).addIfAbsent(listener);
         }
     }
     
@@ -96,24 +358,328 @@ public class SideMenuModel implements Serializable {
         listeners.remove(listener);
     }
     
+    public void addSideMenuModelListener(SideMenuModelListener listener) {
+        if (listener != null) {
+            ((CopyOnWriteArrayList<SideMenuModelListener>) modelListeners).addIfAbsent(listener);
+        }
+    }
+    
+    public void removeSideMenuModelListener(SideMenuModelListener listener) {
+        modelListeners.remove(listener);
+    }
+    
+    /**
+     * Indica si hay algún listener que notificar
+     */
+    boolean hasListeners() {
+        return !listeners.isEmpty() || !modelListeners.isEmpty();
+    }
+    
+    /**
+     * Indica si a alguien le interesan los cambios de propiedades de los
+     * ítems (listeners o el índice de búsqueda)
+     */
+    boolean isObserved() {
+        return index.isTextIndexed() || hasListeners();
+    }
+    
+    // Notificaciones usadas también por SideMenuItem para los cambios en sus hijos
+    
+    void fireItemsInserted(SideMenuItem parent, int index, SideMenuItem item) {
+        fire(new SideMenuModelEvent(this, SideMenuModelEvent.Type.INSERTED, parent,
+                new int[] {index}, new SideMenuItem[] {item}));
+    }
+    
+    void fireItemsRemoved(SideMenuItem parent, int index, SideMenuItem item) {
+        fire(new SideMenuModelEvent(this, SideMenuModelEvent.Type.REMOVED, parent,
+                new int[] {index}, new SideMenuItem[] {item}));
+    }
+    
+    void fireItemsChanged(SideMenuItem parent, int index, SideMenuItem item) {
+        fire(new SideMenuModelEvent(this, SideMenuModelEvent.Type.CHANGED, parent,
+                new int[] {index}, new SideMenuItem[] {item}));
+    }
+    
+    /**
+     * Registra el cambio de una propiedad de un ítem del árbol. Solo genera
+     * el evento si alguien lo observa, pero siempre invalida la copia.
+     */
+    void itemChanged(SideMenuItem item) {
+        lock.lock();
+        try {
+            if (item.getModel() != this) return; // Se quitó mientras tanto
+            item.invalidateSnapshot();
+            if (isObserved()) {
+                fireItemsChanged(item.getParent(), positionOf(item), item);
+            } else {
+                version++;
+            }
+        } finally {
+            release();
+        }
+    }
+    
+    void fireItemsMoved(SideMenuItem parent, int fromIndex, int toIndex, SideMenuItem item) {
+        fire(new SideMenuModelEvent(this, SideMenuModelEvent.Type.MOVED, parent,
+                new int[] {toIndex}, new SideMenuItem[] {item}, new int[] {fromIndex}));
+    }
+    
+    /**
+     * Mueve un ítem de nivel superior a otra posición
+     */
+    public void moveItem(int fromIndex, int toIndex) {
+        lock.lock();
+        try {
+            if (fromIndex < 0 || fromIndex >= items.size() || toIndex < 0 || toIndex >= items.size()
+                    || fromIndex == toIndex) {
+                return;
+            }
+            SideMenuItem item = items.get(fromIndex);
+            items = itemList().moved(fromIndex, toIndex);
+            fireItemsMoved(null, fromIndex, toIndex, item);
+        } finally {
+            release();
+        }
+    }
+    
+    // Copia inmutable
+    
+    /**
+     * Obtiene una copia inmutable y consistente de todo el árbol. La copia
+     * se reconstruye solo si el modelo cambió desde la anterior, y solo en
+     * los caminos que cambiaron (el resto se comparte con la anterior); nunca
+     * espera a otro hilo que esté modificando el modelo: en ese caso
+     * devuelve la última copia completa (la primera vez sí espera).
+     */
+    public SideMenuModelSnapshot getSnapshot() {
+        SideMenuModelSnapshot current = snapshot;
+        if (current != null) {
+            if (current.getVersion() == version || !lock.tryLock()) {
+                return current;
+            }
+        } else {
+            lock.lock();
+        }
+        try {
+            current = snapshot;
+            if (current == null || current.getVersion() != version) {
+                current = new SideMenuModelSnapshot(version, items);
+                snapshot = current;
+            }
+            return current;
+        } finally {
+            release();
+        }
+    }
+    
+    /**
+     * Versión actual del árbol; aumenta con cada cambio
+     */
+    public long getVersion() {
+        return version;
+    }
+    
+    // Búsquedas en el índice: no toman el bloqueo del modelo, así que no
+    // esperan a los cambios de otros hilos
+    
+    /**
+     * Índice con el texto y userData indexados, para las búsquedas que los usan
+     */
+    private SideMenuItemIndex getTextIndex() {
+        index.indexText(items);
+        return index;
+    }
+    
+    private void updateIndex(SideMenuModelEvent event) {
+        SideMenuItem parent = event.getParent();
+        SideMenuItem[] changed = event.getItems();
+        int[] indices = event.getChildIndices();
+        for (int i = 0; i < changed.length; i++) {
+            switch (event.getType()) {
+                case INSERTED:
+                    index.addTree(changed[i]);
+                    index.inserted(parent, indices[i], changed[i]);
+                    break;
+                case REMOVED:
+                    index.removeTree(changed[i]);
+                    index.removed(parent, indices[i]);
+                    break;
+                case CHANGED:
+                    index.update(changed[i]);
+                    break;
+                case MOVED:
+                    index.moved(parent, event.getPreviousIndices()[i], indices[i]);
+                    break;
+            }
+        }
+    }
+    
+    /**
+     * Busca un ítem por su clave en todo el árbol (incluyendo ítems anidados)
+     * 
+     * @see SideMenuItem#getKey()
+     */
+    public SideMenuItem findItemByKey(String key) {
+        if (key == null) return null;
+        return index.findByKey(key);
+    }
+    
+    /**
+     * Busca un ítem por su texto en todo el árbol (incluyendo ítems anidados)
+     * 
+     * @return El primer ítem indexado con ese texto o null si no existe
+     */
+    public SideMenuItem findItemByText(String text) {
+        return getTextIndex().findByText(text);
+    }
+    
     /**
-    * Método mejorado para garantizar que los listeners reciben la notificación
-    */
-   private void fireChangeEvent() {
-       if (listeners.isEmpty()) {
-           return; // No hay listeners que notificar
-       }
+     * Busca todos los ítems con ese texto en todo el árbol
+     */
+    public List<SideMenuItem> findItemsByText(String text) {
+        return getTextIndex().findAllByText(text);
+    }
+    
+    /**
+     * Busca los ítems cuyo texto tiene palabras que empiezan por cada término
+     * de la consulta, sin distinguir mayúsculas ni acentos. Por ejemplo,
+     * "conf us" encuentra "Configuración de usuarios". Usa el índice de
+     * prefijos, sin recorrer el árbol.
+     * 
+     * @return Ítems encontrados en cualquier nivel, sin un orden particular
+     */
+    public List<SideMenuItem> findItemsByPrefix(String query) {
+        List<String> terms = SideMenuPrefixTrie.words(query);
+        if (terms.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return getTextIndex().findByWordPrefixes(terms);
+    }
+    
+    /**
+     * Busca un ítem por su userData (por ejemplo, una ruta de navegación)
+     */
+    public SideMenuItem findItemByUserData(Object userData) {
+        if (userData == null) return null;
+        return getTextIndex().findByUserData(userData);
+    }
+    
+    /**
+     * Indica si el ítem pertenece a este modelo (en cualquier nivel)
+     */
+    public boolean containsItem(SideMenuItem item) {
+        return item != null && item.getModel() == this;
+    }
+    
+    /**
+     * Obtiene el camino desde el ítem de nivel superior hasta el ítem dado,
+     * útil para migas de pan
+     * 
+     * @return Lista con el ítem raíz primero y el ítem dado al final, vacía si
+     *         el ítem no pertenece al modelo
+     */
+    public List<SideMenuItem> getPath(SideMenuItem item) {
+        List<SideMenuItem> path = new ArrayList<>();
+        for (SideMenuItem current = item; current != null; current = current.getParent()) {
+            path.add(current);
+        }
+        if (path.isEmpty() || !containsItem(path.get(path.size() - 1))) {
+            return new ArrayList<>(); // No pertenece al modelo
+        }
+        Collections.reverse(path);
+        return path;
+    }
+    
+    private static int[] sequence(int from, int count) {
+        int[] indices = new int[count];
+        for (int i = 0; i < count; i++) {
+            indices[i] = from + i;
+        }
+        return indices;
+    }
+    
+    /**
+     * Guarda el evento hasta soltar el bloqueo, o hasta cerrar el lote si
+     * este hilo tiene uno abierto. Se llama siempre con el bloqueo tomado.
+     */
+    private void fire(SideMenuModelEvent event) {
+        version++;
+        updateIndex(event);
+        
+        Batch batch = batches.get();
+        if (batch != null) {
+            batch.events.add(event);
+            return;
+        }
+        if (pendingEvents == null) {
+            pendingEvents = new ArrayList<>();
+        }
+        pendingEvents.add(event);
+    }
+    
+    /**
+     * Método mejorado para garantizar que los listeners reciben la notificación.
+     * Los eventos detallados y un único ChangeEvent se entregan juntos en el EDT.
+     */
+    private void dispatch(List<SideMenuModelEvent> events) {
+        if (!hasListeners()) {
+            return; // No hay listeners que notificar
+        }
 
-       // Crear el evento una sola vez
-       final ChangeEvent event = new ChangeEvent(this);
+        // Crear el evento una sola vez
+        final ChangeEvent changeEvent = new ChangeEvent(this);
 
-       // Usar SwingUtilities.invokeLater para asegurar que se ejecuta en el hilo EDT
-       SwingUtilities.invokeLater(() -> {
-           for (ChangeListener listener : new ArrayList<>(listeners)) {
-               listener.stateChanged(event);
-           }
-       });
-   }
+        // Usar SwingUtilities.invokeLater para asegurar que se ejecuta en el hilo EDT
+        SwingUtilities.invokeLater(() -> {
+            for (SideMenuModelEvent event : events) {
+                for (SideMenuModelListener listener : modelListeners) {
+                    switch (event.getType()) {
+                        case INSERTED: listener.itemsInserted(event); break;
+                        case REMOVED: listener.itemsRemoved(event); break;
+                        case CHANGED: listener.itemsChanged(event); break;
+                        case MOVED: listener.itemsMoved(event); break;
+                    }
+                }
+            }
+            for (ChangeListener listener : listeners) {
+                listener.stateChanged(changeEvent);
+            }
+        });
+    }
+    
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        // Como EventListenerList: solo se guardan los listeners serializables
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("items", items);
+        fields.put("listeners", serializable(listeners));
+        fields.put("modelListeners", serializable(modelListeners));
+        out.writeFields();
+    }
+    
+    private static <T> List<T> serializable(List<T> listeners) {
+        List<T> result = new ArrayList<>();
+        for (T listener : listeners) {
+            if (listener instanceof Serializable) {
+                result.add(listener);
+            }
+        }
+        return result;
+    }
+    
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        lock = new ReentrantLock();
+        batches = new ThreadLocal<>();
+        items = SideMenuItemList.copyOf(items);
+        listeners = new CopyOnWriteArrayList<>(listeners);
+        modelListeners = (modelListeners != null)
+                ? new CopyOnWriteArrayList<>(modelListeners) : new CopyOnWriteArrayList<>();
+        // El dueño de los ítems no se serializa
+        for (SideMenuItem item : items) {
+            item.attach(this);
+        }
+        index = new SideMenuItemIndex(items);
+    }
     
     @Override
     public String toString() {
@@ -3,9 +3,20 @@ package menulateral;
 import java.awt.*;
 import java.awt.event.*;
 import java.beans.*;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.zip.CRC32;
 import javax.swing.*;
+import javax.swing.border.Border;
 import javax.swing.border.EmptyBorder;
 import javax.swing.table.AbstractTableModel;
 import javax.swing.table.DefaultTableCellRenderer;
@@ -18,36 +29,121 @@ import javax.swing.table.TableCellRenderer;
  */
 public class SideMenuModelEditor extends PropertyEditorSupport {
     
-    private SideMenuModel model;
+    /**
+     * Propiedad del sistema con el directorio de recursos (por ejemplo, src
+     * del proyecto) donde se guardan los menús grandes
+     */
+    public static final String RESOURCE_DIR_PROPERTY = "menulateral.resourceDir";
+    
+    private static final String RESOURCE_FOLDER = "menulateral-menus";
+    private static final int CHUNK_SIZE = 200;          // Ítems por método auxiliar
+    private static final int RESOURCE_THRESHOLD = 2000; // Ítems a partir de los que se usa un recurso
+    
+    private SideMenuModel model;       // Valor publicado; null si hay ediciones sin publicar
+    private long modelVersion;         // Versión de model de la que salió roots
+    private List<SideMenuModelSnapshot.Node> roots = Collections.emptyList(); // Árbol que se edita
     private JPanel customPanel;
     private MenuItemTableModel tableModel;
     private JTable table;
     private JButton addChildButton;
+    private List<FlatMenuItem> flatItems; // Vista plana de las filas de la tabla
+    private final ModelListener modelListener = new ModelListener();
     
     public SideMenuModelEditor() {
         // Inicializar con un modelo vacío si no se proporciona uno
         model = new SideMenuModel();
     }
     
+    /**
+     * El editor no modifica el modelo recibido, que puede estar en uso por el
+     * componente: trabaja sobre los nodos inmutables de su snapshot. Cada
+     * edición copia solo el camino desde el nodo cambiado hasta el nivel
+     * superior y comparte el resto del árbol con la versión anterior.
+     */
     @Override
     public void setValue(Object value) {
-        if (value instanceof SideMenuModel) {
-            this.model = (SideMenuModel) value;
-        } else {
-            this.model = new SideMenuModel();
+        if (value == model && model != null && model.getVersion() == modelVersion) {
+            return; // El valor que este editor acaba de publicar, sin cambios
         }
+        observe(value instanceof SideMenuModel ? (SideMenuModel) value : new SideMenuModel());
+        reloadRoots();
+        
+        // Notificar a PropertyEditor que el valor ha cambiado
+        firePropertyChange();
+    }
+    
+    /**
+     * Toma el árbol del modelo publicado y actualiza la tabla
+     */
+    private void reloadRoots() {
+        SideMenuModelSnapshot snapshot = model.getSnapshot();
+        roots = snapshot.getItems();
+        modelVersion = snapshot.getVersion();
         
         // Notificar cambio para actualizar editor
+        invalidateFlatMenuItems();
         if (tableModel != null) {
             tableModel.fireTableDataChanged();
         }
+    }
+    
+    /**
+     * Cambia el modelo publicado y escucha sus cambios, que pueden venir de
+     * fuera del editor
+     */
+    private void observe(SideMenuModel value) {
+        if (model != null) {
+            model.removeSideMenuModelListener(modelListener);
+        }
+        model = value;
+        if (model != null) {
+            model.addSideMenuModelListener(modelListener);
+        }
+    }
+    
+    /**
+     * Vuelve a cargar la tabla cuando el modelo publicado cambia fuera del editor
+     */
+    private class ModelListener implements SideMenuModelListener {
+        @Override
+        public void itemsInserted(SideMenuModelEvent e) {
+            modelChanged();
+        }
         
-        // Notificar a PropertyEditor que el valor ha cambiado
-        firePropertyChange();
+        @Override
+        public void itemsRemoved(SideMenuModelEvent e) {
+            modelChanged();
+        }
+        
+        @Override
+        public void itemsChanged(SideMenuModelEvent e) {
+            modelChanged();
+        }
+        
+        @Override
+        public void itemsMoved(SideMenuModelEvent e) {
+            modelChanged();
+        }
+        
+        private void modelChanged() {
+            // Los eventos llegan después del cambio: varios pueden ser de la misma versión
+            if (model != null && model.getVersion() != modelVersion) {
+                reloadRoots();
+            }
+        }
     }
     
+    /**
+     * Devuelve el modelo editado. Después de una edición se arma un modelo
+     * nuevo a partir de los nodos la primera vez que se pide, con copias de
+     * los ítems que conservan claves e iconos ya cargados.
+     */
     @Override
     public Object getValue() {
+        if (model == null) {
+            observe(toModel(roots));
+            modelVersion = model.getVersion();
+        }
         return model;
     }
     
@@ -66,110 +162,174 @@ public class SideMenuModelEditor extends PropertyEditorSupport {
     
     @Override
     public String getAsText() {
-        return model.toString();
+        return "SideMenuModel[" + roots.size() + " items]";
     }
-    
     /**
     * Genera el código Java para inicializar la propiedad del modelo
-    * Este método es usado por NetBeans para generar código en el Source
+    * Este método es usado por NetBeans para generar código en el Source.
+    * El código se reparte en métodos auxiliares de CHUNK_SIZE ítems para no
+    * superar el límite de 64 KB por método; con más de RESOURCE_THRESHOLD
+    * ítems y la propiedad {@value #RESOURCE_DIR_PROPERTY} definida, el menú
+    * se guarda como recurso binario y el código solo lo carga.
     */
     @Override
     public String getJavaInitializationString() {
-        StringBuilder sb = new StringBuilder();
-        sb.append("new menulateral.SideMenuModel()");
-
-        // Solo genera código para agregar elementos si hay elementos en el modelo
-        if (model != null && model.getItemCount() > 0) {
-            // Cambiar a un enfoque más directo sin usar lambdas
-            sb.delete(0, sb.length());  // Limpiar el StringBuilder
-            sb.append("new menulateral.SideMenuModel() {{ ");
+        if (roots.isEmpty()) {
+            return "new menulateral.SideMenuModel()";
+        }
 
-            // Generar código para todos los elementos (recursivamente)
-            for (SideMenuItem item : model.getItems()) {
-                generateItemCode(sb, item, null);
+        int nodeCount = 0;
+        for (SideMenuModelSnapshot.Node node : roots) {
+            nodeCount += node.size();
+        }
+        if (nodeCount > RESOURCE_THRESHOLD) {
+            String resource = writeResource();
+            if (resource != null) {
+                return "menulateral.SideMenuBinaryFormat.readResource(\"" + escapeJavaString(resource) + "\")";
             }
+        }
 
-            sb.append("}}");
+        // Un solo recorrido: cada ítem se guarda en p[nivel], así que los hijos
+        // siempre encuentran a su padre aunque estén en otro método auxiliar
+        GeneratedCode code = new GeneratedCode();
+        for (SideMenuModelSnapshot.Node node : roots) {
+            generateItemCode(code, node, 0);
         }
+        List<StringBuilder> chunks = code.chunks;
 
+        StringBuilder sb = new StringBuilder();
+        sb.append("new menulateral.SideMenuModel() {{ beginUpdate(); try { ");
+        sb.append("menulateral.SideMenuItem[] p = new menulateral.SideMenuItem[").append(code.depth + 1).append("]; ");
+        for (int i = 0; i < chunks.size(); i++) {
+            sb.append("initItems").append(i).append("(p); ");
+        }
+        sb.append("} finally { endUpdate(); } } ");
+        for (int i = 0; i < chunks.size(); i++) {
+            sb.append("private void initItems").append(i).append("(menulateral.SideMenuItem[] p) { ");
+            sb.append(chunks.get(i));
+            sb.append("} ");
+        }
+        sb.append("}");
         return sb.toString();
     }
     
     /**
-     * Genera código recursivamente para un ítem y sus hijos
+     * Genera código recursivamente para un ítem y sus hijos. Los ítems se
+     * arman sin modelo y la raíz se agrega al terminar su subárbol.
      */
-    private void generateItemCode(StringBuilder sb, SideMenuItem item, String parentVar) {
-        // Variable para este ítem (necesaria para referenciar en hijos)
-        String itemVar = null;
-        
-        if (parentVar == null) {
-            // Es un ítem de nivel superior, agregarlo directamente al modelo
-            sb.append("addItem(");
-        } else {
-            // Es un hijo, necesitamos crear una variable temporal
-            itemVar = "item" + System.identityHashCode(item) % 10000;
-            sb.append("menulateral.SideMenuItem ").append(itemVar).append(" = ");
-        }
+    private void generateItemCode(GeneratedCode code, SideMenuModelSnapshot.Node node, int level) {
+        code.depth = Math.max(code.depth, level);
+        StringBuilder sb = code.nextItem();
+        String itemVar = "p[" + level + "]";
         
-        // Crear el constructor del ítem
-        sb.append("new menulateral.SideMenuItem(");
+        sb.append(itemVar).append(" = new menulateral.SideMenuItem(");
         
         // Texto del ítem (siempre presente)
-        sb.append("\"").append(escapeJavaString(item.getText())).append("\"");
+        sb.append("\"").append(escapeJavaString(node.getText())).append("\"");
         
         // Si tiene una ruta de icono, incluirla
-        if (item.getIconPath() != null && !item.getIconPath().isEmpty()) {
-            sb.append(", \"").append(escapeJavaString(item.getIconPath())).append("\"");
-        } else if (item.getTooltip() != null && !item.getTooltip().isEmpty()) {
+        if (node.getIconPath() != null && !node.getIconPath().isEmpty()) {
+            sb.append(", \"").append(escapeJavaString(node.getIconPath())).append("\"");
+        } else if (node.getTooltip() != null && !node.getTooltip().isEmpty()) {
             // No hay icono pero necesitamos incluir null para llegar al tooltip
             sb.append(", null");
         }
         
         // Si tiene tooltip, agregarlo como tercer parámetro
-        if (item.getTooltip() != null && !item.getTooltip().isEmpty()) {
-            sb.append(", \"").append(escapeJavaString(item.getTooltip())).append("\"");
+        if (node.getTooltip() != null && !node.getTooltip().isEmpty()) {
+            sb.append(", \"").append(escapeJavaString(node.getTooltip())).append("\"");
         }
         
-        sb.append(")");
-        
-        // Si no tiene padre, terminar la llamada a addItem
-        if (parentVar == null) {
-            sb.append("); ");
-            // Si este ítem necesitará ser referenciado, guardar en variable
-            if (item.isHasChildren()) {
-                itemVar = "item" + System.identityHashCode(item) % 10000;
-                sb.append("menulateral.SideMenuItem ").append(itemVar)
-                  .append(" = getItem(").append(model.indexOf(item)).append("); ");
-            }
-        } else {
-            sb.append("; ");
-            // Agregar este ítem como hijo del padre
-            sb.append(parentVar).append(".addChild(").append(itemVar).append("); ");
+        sb.append("); ");
+        if (level > 0) {
+            sb.append("p[").append(level - 1).append("].addChild(").append(itemVar).append("); ");
         }
         
         // Si está deshabilitado, añadir código para deshabilitarlo
-        if (!item.isEnabled()) {
-            if (itemVar != null) {
-                sb.append(itemVar).append(".setEnabled(false); ");
-            } else {
-                sb.append("getItem(").append(model.indexOf(item)).append(").setEnabled(false); ");
-            }
+        if (!node.isEnabled()) {
+            sb.append(itemVar).append(".setEnabled(false); ");
         }
         
         // Si no se muestra entonces se oculta
-        if (!item.isShown()) {
-            if (itemVar != null) {
-                sb.append(itemVar).append(".setShown(false); ");
-            } else {
-                sb.append("getItem(").append(model.indexOf(item)).append(").setShown(false); ");
-            }
+        if (!node.isShown()) {
+            sb.append(itemVar).append(".setShown(false); ");
         }
         
         // Generar código para todos los hijos
-        if (item.isHasChildren()) {
-            for (SideMenuItem child : item.getChildren()) {
-                generateItemCode(sb, child, itemVar);
+        for (SideMenuModelSnapshot.Node child : node.getChildren()) {
+            generateItemCode(code, child, level + 1);
+        }
+        
+        if (level == 0) {
+            code.chunks.get(code.chunks.size() - 1).append("addItem(p[0]); ");
+        }
+    }
+    
+    /**
+     * Código generado, repartido en los cuerpos de los métodos auxiliares
+     */
+    private static final class GeneratedCode {
+        final List<StringBuilder> chunks = new ArrayList<>();
+        int chunkItems;
+        int depth; // Nivel más profundo, para dimensionar p
+
+        /**
+         * Cuerpo donde va el siguiente ítem; se abre uno nuevo cada CHUNK_SIZE ítems
+         */
+        StringBuilder nextItem() {
+            if (chunks.isEmpty() || chunkItems >= CHUNK_SIZE) {
+                chunks.add(new StringBuilder());
+                chunkItems = 0;
             }
+            chunkItems++;
+            return chunks.get(chunks.size() - 1);
+        }
+    }
+    
+    /**
+     * Guarda el modelo en formato binario dentro del directorio indicado por
+     * {@value #RESOURCE_DIR_PROPERTY}. El nombre depende del contenido, así que
+     * generar dos veces el mismo menú no crea archivos nuevos; un archivo
+     * existente con otro contenido (una escritura anterior que se cortó) se
+     * reemplaza. Se escribe en un temporal que luego se mueve, y el resultado
+     * se vuelve a leer antes de generar código que dependa de él.
+     *
+     * @return Nombre del recurso en el classpath, o null si no se pudo guardar
+     *         (entonces se genera el código completo)
+     */
+    private String writeResource() {
+        String dir = System.getProperty(RESOURCE_DIR_PROPERTY);
+        if (dir == null || dir.isEmpty()) {
+            return null;
+        }
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            SideMenuBinaryFormat.write((SideMenuModel) getValue(), bytes);
+            byte[] data = bytes.toByteArray();
+            CRC32 crc = new CRC32();
+            crc.update(data);
+
+            String name = String.format("menu-%08x.smnu", crc.getValue());
+            Path file = Paths.get(dir, RESOURCE_FOLDER, name);
+            if (!Files.isRegularFile(file) || !Arrays.equals(Files.readAllBytes(file), data)) {
+                Files.createDirectories(file.getParent());
+                Path temp = Files.createTempFile(file.getParent(), name, ".tmp");
+                try {
+                    Files.write(temp, data);
+                    try {
+                        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    } catch (AtomicMoveNotSupportedException e) {
+                        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+                    }
+                } finally {
+                    Files.deleteIfExists(temp);
+                }
+            }
+            SideMenuBinaryFormat.read(file);
+            return "/" + RESOURCE_FOLDER + "/" + name;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("No se pudo guardar el menú como recurso en " + dir + ": " + e.getMessage());
+            return null;
         }
     }
     
@@ -273,16 +433,9 @@ public class SideMenuModelEditor extends PropertyEditorSupport {
      * Agrega un nuevo ítem al modelo (nivel superior)
      */
     private void addNewItem() {
-        SideMenuItem newItem = new SideMenuItem("Nuevo Item");
-        
-        // Crear una copia del modelo actual y agregar el nuevo ítem
-        SideMenuModel newModel = cloneModel(model);
-        newModel.addItem(newItem);
-        
-        // Establecer el nuevo modelo y notificar cambio
-        model = newModel;
-        tableModel.fireTableDataChanged();
-        firePropertyChange();
+        List<SideMenuModelSnapshot.Node> items = new ArrayList<>(roots);
+        items.add(SideMenuModelSnapshot.Node.of(new SideMenuItem("Nuevo Item"), 0));
+        setChildren(null, items);
     }
     
     /**
@@ -294,59 +447,17 @@ public class SideMenuModelEditor extends PropertyEditorSupport {
         if (parentIndex < 0 || parentIndex >= flatItems.size()) return;
         
         FlatMenuItem parentFlatItem = flatItems.get(parentIndex);
-        SideMenuItem parentItem = parentFlatItem.item;
-        
-        // Crear nuevo ítem hijo
-        SideMenuItem newChild = new SideMenuItem("Hijo de " + parentItem.getText());
-        newChild.setLevel(parentItem.getLevel() + 1);
-        
-        // Crear una copia del modelo actual para modificarlo
-        SideMenuModel newModel = cloneModel(model);
-        
-        // Buscar el ítem padre en el nuevo modelo clonado
-        SideMenuItem newParentItem = findItemById(newModel, parentItem);
-        if (newParentItem != null) {
-            // Agregar el hijo al padre
-            newParentItem.addChild(newChild);
-            // Expandir el padre para mostrar los hijos
-            newParentItem.setExpanded(true);
-        }
-        
-        // Establecer el nuevo modelo y notificar cambio
-        model = newModel;
-        tableModel.fireTableDataChanged();
-        firePropertyChange();
-    }
-    
-    /**
-     * Busca un ítem en el modelo basado en la identidad de otro ítem
-     * (Usamos texto y nivel como identificador aproximado)
-     */
-    private SideMenuItem findItemById(SideMenuModel targetModel, SideMenuItem sourceItem) {
-        // Buscar en ítems de nivel superior
-        for (SideMenuItem item : targetModel.getItems()) {
-            SideMenuItem found = findItemInHierarchy(item, sourceItem);
-            if (found != null) return found;
-        }
-        return null;
-    }
-    
-    private SideMenuItem findItemInHierarchy(SideMenuItem currentItem, SideMenuItem targetItem) {
-        // Verificar si este es el ítem que buscamos
-        if (currentItem.getText().equals(targetItem.getText()) && 
-            currentItem.getLevel() == targetItem.getLevel()) {
-            return currentItem;
-        }
+        SideMenuModelSnapshot.Node parentNode = parentFlatItem.node;
         
-        // Buscar en los hijos
-        if (currentItem.isHasChildren()) {
-            for (SideMenuItem child : currentItem.getChildren()) {
-                SideMenuItem found = findItemInHierarchy(child, targetItem);
-                if (found != null) return found;
-            }
-        }
+        // Crear nuevo ítem hijo, sin modelo ni padre
+        SideMenuItem newChild = new SideMenuItem("Hijo de " + parentNode.getText());
+        List<SideMenuModelSnapshot.Node> children = new ArrayList<>(parentNode.getChildren());
+        children.add(SideMenuModelSnapshot.Node.of(newChild, parentFlatItem.depth + 1));
         
-        return null;
+        // Expandir el padre para mostrar los hijos
+        parentFlatItem.node = parentNode.withProperties(parentNode.getText(), parentNode.getTooltip(),
+                parentNode.isEnabled(), parentNode.isShown(), true);
+        setChildren(parentFlatItem, children);
     }
     
     /**
@@ -358,34 +469,9 @@ public class SideMenuModelEditor extends PropertyEditorSupport {
         if (index < 0 || index >= flatItems.size()) return;
         
         FlatMenuItem flatItem = flatItems.get(index);
-        SideMenuItem itemToRemove = flatItem.item;
-        SideMenuItem parentItem = flatItem.parent;
-        
-        // Crear una copia del modelo actual
-        SideMenuModel newModel = cloneModel(model);
-        
-        if (parentItem == null) {
-            // Es un ítem de nivel superior
-            newModel.removeItem(model.indexOf(itemToRemove));
-        } else {
-            // Es un ítem hijo
-            SideMenuItem newParent = findItemById(newModel, parentItem);
-            if (newParent != null) {
-                for (int i = 0; i < newParent.getChildCount(); i++) {
-                    SideMenuItem child = newParent.getChild(i);
-                    if (child.getText().equals(itemToRemove.getText()) &&
-                        child.getLevel() == itemToRemove.getLevel()) {
-                        newParent.removeChild(i);
-                        break;
-                    }
-                }
-            }
-        }
-        
-        // Establecer el nuevo modelo y notificar cambio
-        model = newModel;
-        tableModel.fireTableDataChanged();
-        firePropertyChange();
+        List<SideMenuModelSnapshot.Node> siblings = new ArrayList<>(siblingsOf(flatItem));
+        siblings.remove(flatItem.index);
+        setChildren(flatItem.parent, siblings);
     }
     
     /**
@@ -401,174 +487,193 @@ public class SideMenuModelEditor extends PropertyEditorSupport {
         FlatMenuItem toItem = flatItems.get(toIndex);
         
         // Solo permitir mover items en el mismo nivel y con el mismo padre
-        if (fromItem.parent != toItem.parent || fromItem.item.getLevel() != toItem.item.getLevel()) {
+        if (fromItem.parent != toItem.parent || fromItem.depth != toItem.depth) {
             JOptionPane.showMessageDialog(customPanel, 
                 "Solo se pueden mover elementos dentro del mismo nivel y padre",
                 "Error al mover", JOptionPane.WARNING_MESSAGE);
             return;
         }
         
-        // Crear una copia del modelo actual
-        SideMenuModel newModel = cloneModel(model);
-        
-        if (fromItem.parent == null) {
-            // Son ítems de nivel superior
-            List<SideMenuItem> items = new ArrayList<>(model.getItems());
-            SideMenuItem item = items.get(model.indexOf(fromItem.item));
-            items.remove(model.indexOf(fromItem.item));
-            items.add(model.indexOf(toItem.item), item);
-            newModel.setItems(items);
+        List<SideMenuModelSnapshot.Node> siblings = new ArrayList<>(siblingsOf(fromItem));
+        siblings.add(toItem.index, siblings.remove(fromItem.index));
+        setChildren(fromItem.parent, siblings);
+    }
+    
+    private List<SideMenuModelSnapshot.Node> siblingsOf(FlatMenuItem row) {
+        return row.parent == null ? roots : row.parent.node.getChildren();
+    }
+    
+    /**
+     * Reemplaza los hijos de una fila (o los ítems de nivel superior si es
+     * null) y reconstruye la vista plana, porque cambió la estructura
+     */
+    private void setChildren(FlatMenuItem parent, List<SideMenuModelSnapshot.Node> children) {
+        if (parent == null) {
+            publish(children);
         } else {
-            // Son ítems hijo del mismo padre
-            SideMenuItem newParent = findItemById(newModel, fromItem.parent);
-            if (newParent != null) {
-                List<SideMenuItem> children = new ArrayList<>(newParent.getChildren());
-                // Encontrar índices en la lista de hijos
-                int fromChildIndex = -1, toChildIndex = -1;
-                for (int i = 0; i < children.size(); i++) {
-                    SideMenuItem child = children.get(i);
-                    if (child.getText().equals(fromItem.item.getText())) fromChildIndex = i;
-                    if (child.getText().equals(toItem.item.getText())) toChildIndex = i;
-                }
-                
-                if (fromChildIndex >= 0 && toChildIndex >= 0) {
-                    SideMenuItem item = children.get(fromChildIndex);
-                    children.remove(fromChildIndex);
-                    children.add(toChildIndex, item);
-                    
-                    // Recrear la lista de hijos
-                    newParent.getChildren().clear();
-                    for (SideMenuItem child : children) {
-                        newParent.addChild(child);
-                    }
-                }
-            }
+            replaceNode(parent, parent.node.withChildren(children));
         }
-        
-        // Establecer el nuevo modelo y notificar cambio
-        model = newModel;
+        invalidateFlatMenuItems();
         tableModel.fireTableDataChanged();
+    }
+    
+    /**
+     * Sustituye el nodo de una fila y copia el camino hasta el nivel superior;
+     * los nodos de las filas antecesoras se actualizan en el mismo recorrido
+     */
+    private void replaceNode(FlatMenuItem row, SideMenuModelSnapshot.Node node) {
+        row.node = node;
+        FlatMenuItem child = row;
+        while (child.parent != null) {
+            FlatMenuItem parent = child.parent;
+            List<SideMenuModelSnapshot.Node> children = new ArrayList<>(parent.node.getChildren());
+            children.set(child.index, child.node);
+            parent.node = parent.node.withChildren(children);
+            child = parent;
+        }
+        List<SideMenuModelSnapshot.Node> items = new ArrayList<>(roots);
+        items.set(child.index, child.node);
+        publish(items);
+    }
+    
+    /**
+     * Guarda la nueva versión del árbol; el modelo se arma cuando se pide el valor
+     */
+    private void publish(List<SideMenuModelSnapshot.Node> items) {
+        roots = Collections.unmodifiableList(items);
+        observe(null);
         firePropertyChange();
     }
     
     /**
-    * Crea una copia del modelo para evitar problemas de referencia
-    */
-    private SideMenuModel cloneModel(SideMenuModel sourceModel) {
-        SideMenuModel newModel = new SideMenuModel();
-        
-        // Clonar los items de nivel superior
-        for (SideMenuItem item : sourceModel.getItems()) {
-            SideMenuItem newItem = cloneItemWithChildren(item);
-            newModel.addItem(newItem);
-        }
-        
-        return newModel;
+     * Árbol que se está editando; los subárboles sin cambios se comparten
+     * entre versiones
+     */
+    List<SideMenuModelSnapshot.Node> getRoots() {
+        return roots;
     }
     
     /**
-     * Clona un ítem y sus hijos recursivamente
+     * Arma un modelo nuevo a partir de los nodos, con copias de los ítems sin
+     * modelo ni padre compartidos con el original. Conserva las claves y los
+     * iconos ya cargados, así que no se vuelve a resolver ninguna imagen.
      */
-    private SideMenuItem cloneItemWithChildren(SideMenuItem item) {
-        // Crear un nuevo ítem con las mismas propiedades
-        SideMenuItem newItem;
-        if (item.getIconPath() != null && !item.getIconPath().isEmpty()) {
-            newItem = new SideMenuItem(
-                    item.getText(),
-                    item.getIconPath(),
-                    item.getTooltip());
-        } else {
-            newItem = new SideMenuItem(
-                    item.getText(),
-                    null,
-                    item.getTooltip());
-        }
-        
-        // Copiar otras propiedades
-        newItem.setEnabled(item.isEnabled());
-        newItem.setUserData(item.getUserData());
-        newItem.setLevel(item.getLevel());
-        newItem.setExpanded(item.isExpanded());
-        
-        // Si tiene URL de icono, preservarla
-        if (item.getIconUrl() != null) {
-            newItem.setIconUrl(item.getIconUrl());
-        }
-        
-        // Clonar hijos recursivamente
-        if (item.isHasChildren()) {
-            for (SideMenuItem child : item.getChildren()) {
-                SideMenuItem newChild = cloneItemWithChildren(child);
-                newItem.addChild(newChild);
-            }
+    static SideMenuModel toModel(List<SideMenuModelSnapshot.Node> nodes) {
+        List<SideMenuItem> items = new ArrayList<>(nodes.size());
+        for (SideMenuModelSnapshot.Node node : nodes) {
+            SideMenuItem item = SideMenuItem.copyOf(node);
+            addChildren(node, item);
+            items.add(item);
+        }
+        return new SideMenuModel(items);
+    }
+    
+    // Cada hijo se agrega antes de copiar los suyos, para que su nivel sea correcto
+    private static void addChildren(SideMenuModelSnapshot.Node node, SideMenuItem item) {
+        for (SideMenuModelSnapshot.Node child : node.getChildren()) {
+            SideMenuItem childItem = SideMenuItem.copyOf(child);
+            item.addChild(childItem);
+            addChildren(child, childItem);
         }
-        
-        return newItem;
     }
     
     /**
-     * Clase auxiliar para representar un ítem en la lista plana
-     * con referencia a su padre
+     * Clase auxiliar para representar un ítem en la lista plana con su
+     * profundidad, la fila de su padre y su posición entre los hermanos
      */
-    private class FlatMenuItem {
-        SideMenuItem item;
-        SideMenuItem parent;
-        
-        public FlatMenuItem(SideMenuItem item, SideMenuItem parent) {
-            this.item = item;
+    private static class FlatMenuItem {
+        SideMenuModelSnapshot.Node node; // Se sustituye al copiar el camino
+        final FlatMenuItem parent;
+        final int index;
+        final int depth;
+        
+        public FlatMenuItem(SideMenuModelSnapshot.Node node, FlatMenuItem parent, int index, int depth) {
+            this.node = node;
             this.parent = parent;
+            this.index = index;
+            this.depth = depth;
         }
     }
     
     /**
-     * Obtiene una lista aplanada de todos los ítems visibles
-     * incluyendo los hijos expandidos
+     * Obtiene la lista aplanada de todos los ítems visibles incluyendo los
+     * hijos expandidos. La lista se mantiene entre llamadas y solo se vuelve
+     * a construir después de {@link #invalidateFlatMenuItems()}.
      */
     private List<FlatMenuItem> getFlatMenuItems() {
-        List<FlatMenuItem> flatItems = new ArrayList<>();
-        
-        // Agregar ítems de nivel superior y sus hijos recursivamente
-        for (SideMenuItem item : model.getItems()) {
-            flatItems.add(new FlatMenuItem(item, null));
-            if (item.isHasChildren() && item.isExpanded()) {
-                addChildrenToFlatList(item, flatItems);
+        if (flatItems == null) {
+            flatItems = new ArrayList<>();
+            
+            // Agregar ítems de nivel superior y sus hijos recursivamente
+            for (int i = 0; i < roots.size(); i++) {
+                FlatMenuItem row = new FlatMenuItem(roots.get(i), null, i, 0);
+                flatItems.add(row);
+                if (row.node.isHasChildren() && row.node.isExpanded()) {
+                    addChildrenToFlatList(row, flatItems, flatItems.size());
+                }
             }
         }
-        
         return flatItems;
     }
     
     /**
-     * Agrega los hijos de un ítem a la lista plana recursivamente
+     * Descarta la lista aplanada; se usa cuando cambia la estructura del modelo
+     */
+    private void invalidateFlatMenuItems() {
+        flatItems = null;
+    }
+    
+    /**
+     * Inserta los hijos visibles de una fila en la lista plana a partir de la
+     * posición indicada, recursivamente
+     * @return La posición siguiente al último hijo insertado
      */
-    private void addChildrenToFlatList(SideMenuItem parent, List<FlatMenuItem> flatItems) {
-        for (SideMenuItem child : parent.getChildren()) {
-            flatItems.add(new FlatMenuItem(child, parent));
-            if (child.isHasChildren() && child.isExpanded()) {
-                addChildrenToFlatList(child, flatItems);
+    private int addChildrenToFlatList(FlatMenuItem parent, List<FlatMenuItem> flatItems, int position) {
+        List<SideMenuModelSnapshot.Node> children = parent.node.getChildren();
+        for (int i = 0; i < children.size(); i++) {
+            FlatMenuItem row = new FlatMenuItem(children.get(i), parent, i, parent.depth + 1);
+            flatItems.add(position++, row);
+            if (row.node.isHasChildren() && row.node.isExpanded()) {
+                position = addChildrenToFlatList(row, flatItems, position);
             }
         }
+        return position;
     }
     
     /**
-     * Modelo de tabla para los ítems del menú
+     * Muestra u oculta en la lista plana los descendientes de la fila
+     * según el estado expandido de su ítem, sin reconstruir la lista
      */
-    private class MenuItemTableModel extends AbstractTableModel {
-        private final String[] columnNames = {"Texto", "Icono", "Tooltip", "Habilitado", "Mostrado", "Expandido"};
-        private List<FlatMenuItem> flatItems;
+    private void updateExpandedRows(int row) {
+        List<FlatMenuItem> rows = getFlatMenuItems();
+        FlatMenuItem flatItem = rows.get(row);
         
-        public MenuItemTableModel() {
-            refreshFlatItems();
+        // Quitar los descendientes que se estaban mostrando
+        int end = row + 1;
+        while (end < rows.size() && rows.get(end).depth > flatItem.depth) {
+            end++;
+        }
+        if (end > row + 1) {
+            rows.subList(row + 1, end).clear();
+            tableModel.fireTableRowsDeleted(row + 1, end - 1);
         }
         
-        private void refreshFlatItems() {
-            this.flatItems = getFlatMenuItems();
+        // Insertar los descendientes visibles si ahora está expandido
+        if (flatItem.node.isExpanded() && !flatItem.node.getChildren().isEmpty()) {
+            int last = addChildrenToFlatList(flatItem, rows, row + 1);
+            tableModel.fireTableRowsInserted(row + 1, last - 1);
         }
+    }
+    
+    /**
+     * Modelo de tabla para los ítems del menú
+     */
+    private class MenuItemTableModel extends AbstractTableModel {
+        private final String[] columnNames = {"Texto", "Icono", "Tooltip", "Habilitado", "Mostrado", "Expandido"};
         
         @Override
         public int getRowCount() {
-            refreshFlatItems();
-            return flatItems.size();
+            return getFlatMenuItems().size();
         }
         
         @Override
@@ -594,102 +699,97 @@ public class SideMenuModelEditor extends PropertyEditorSupport {
         public boolean isCellEditable(int rowIndex, int columnIndex) {
             // La columna "Expandido" solo es editable si el ítem tiene hijos
             if (columnIndex == 5) {
-                return flatItems.get(rowIndex).item.isHasChildren();
+                return getFlatMenuItems().get(rowIndex).node.isHasChildren();
             }
             return true;
         }
         
         @Override
         public Object getValueAt(int rowIndex, int columnIndex) {
+            List<FlatMenuItem> flatItems = getFlatMenuItems();
             if (rowIndex < 0 || rowIndex >= flatItems.size()) return null;
             
-            SideMenuItem item = flatItems.get(rowIndex).item;
-            if (item == null) return null;
+            SideMenuModelSnapshot.Node node = flatItems.get(rowIndex).node;
             
             switch (columnIndex) {
-                case 0: return item.getText();
-                case 1: return item.getIcon();
-                case 2: return item.getTooltip();
-                case 3: return item.isEnabled();
-                case 4: return item.isShown();
-                case 5: return item.isExpanded();
+                case 0: return node.getText();
+                case 1: return node.getItem().getIcon();
+                case 2: return node.getTooltip();
+                case 3: return node.isEnabled();
+                case 4: return node.isShown();
+                case 5: return node.isExpanded();
                 default: return null;
             }
         }
         
         @Override
         public void setValueAt(Object value, int rowIndex, int columnIndex) {
+            List<FlatMenuItem> flatItems = getFlatMenuItems();
             if (rowIndex < 0 || rowIndex >= flatItems.size()) return;
             
-            // Obtener el ítem original y su padre
-            FlatMenuItem flatItem = flatItems.get(rowIndex);
-            SideMenuItem originalItem = flatItem.item;
-            SideMenuItem parentItem = flatItem.parent;
-            
-            // Crear una copia del modelo actual
-            SideMenuModel newModel = cloneModel(model);
-            
-            // Encontrar el ítem correspondiente en el nuevo modelo
-            SideMenuItem newItem;
-            if (parentItem == null) {
-                // Es un ítem de nivel superior
-                newItem = newModel.getItem(model.indexOf(originalItem));
-            } else {
-                // Es un ítem hijo
-                SideMenuItem newParent = findItemById(newModel, parentItem);
-                if (newParent == null) return;
-                
-                // Buscar el hijo correspondiente
-                newItem = null;
-                for (SideMenuItem child : newParent.getChildren()) {
-                    if (child.getText().equals(originalItem.getText()) &&
-                        child.getLevel() == originalItem.getLevel()) {
-                        newItem = child;
-                        break;
-                    }
-                }
-                if (newItem == null) return;
-            }
+            // Los nodos no se modifican: se sustituye el de la fila y su camino
+            FlatMenuItem row = flatItems.get(rowIndex);
+            SideMenuModelSnapshot.Node node = row.node;
+            String text = node.getText();
+            String tooltip = node.getTooltip();
+            boolean enabled = node.isEnabled();
+            boolean shown = node.isShown();
+            boolean expanded = node.isExpanded();
             
             // Actualizar la propiedad correspondiente
             switch (columnIndex) {
                 case 0: // Texto
-                    newItem.setText((String) value);
+                    text = (String) value;
                     break;
-                case 1: // Icono
+                case 1: // Icono: va en una copia separada del ítem
+                    SideMenuItem iconSource = node.getItem().copy();
                     if (value instanceof IconData) {
                         IconData iconData = (IconData) value;
-                        newItem.setIcon(iconData.icon);
-                        newItem.setIconPath(iconData.path);
+                        iconSource.setIcon(iconData.icon);
+                        node = node.withIcon(iconSource, iconData.path);
                     } else if (value instanceof ImageIcon) {
-                        newItem.setIcon((ImageIcon) value);
+                        iconSource.setIcon((ImageIcon) value);
+                        node = node.withIcon(iconSource, node.getIconPath());
                     }
                     break;
                 case 2: // Tooltip
-                    newItem.setTooltip((String) value);
+                    tooltip = (String) value;
                     break;
                 case 3: // Habilitado
-                    newItem.setEnabled((Boolean) value);
+                    enabled = (Boolean) value;
                     break;
                 case 4: // Mostrado
-                    newItem.setShown((Boolean) value);
+                    shown = (Boolean) value;
                     break;
                 case 5: // Expandido
-                    newItem.setExpanded((Boolean) value);
+                    expanded = (Boolean) value;
                     break;
             }
+            if (columnIndex != 1) {
+                node = node.withProperties(text, tooltip, enabled, shown, expanded);
+            }
+            replaceNode(row, node);
+            if (columnIndex == 5) {
+                updateExpandedRows(rowIndex);
+            }
             
-            // Actualizar el modelo y notificar cambios
-            model = newModel;
-            fireTableDataChanged();
-            firePropertyChange();
+            // Notificar cambios
+            fireTableRowsUpdated(rowIndex, rowIndex);
         }
     }
     
     /**
-     * Renderizador para la columna de texto con indentación
+     * Renderizador para la columna de texto con indentación. La sangría es un
+     * margen izquierdo y la marca de expandido/colapsado un icono, así que
+     * pintar una celda no construye cadenas.
      */
     private class IndentedTextRenderer extends DefaultTableCellRenderer {
+        private static final int INDENT = 12; // Píxeles por nivel
+        
+        // Bordes ya construidos por nivel, con y sin foco, y el borde base de cada uno
+        private final Border[][] indents = new Border[2][0];
+        private final Border[] bases = new Border[2];
+        
         @Override
         public Component getTableCellRendererComponent(JTable table, Object value,
                 boolean isSelected, boolean hasFocus, int row, int column) {
@@ -698,27 +798,96 @@ public class SideMenuModelEditor extends PropertyEditorSupport {
                     table, value, isSelected, hasFocus, row, column);
             
             // Añadir indentación basada en el nivel del ítem
-            if (row >= 0 && row < getFlatMenuItems().size()) {
-                SideMenuItem item = getFlatMenuItems().get(row).item;
-                int level = item.getLevel();
-                
-                // Añadir prefijo visual según el nivel y si tiene hijos
-                String prefix = "";
-                for (int i = 0; i < level; i++) {
-                    prefix += "   "; // 3 espacios por nivel
-                }
-                
-                if (item.isHasChildren()) {
-                    prefix += item.isExpanded() ? "▼ " : "► ";
-                } else if (level > 0) {
-                    prefix += "• ";
-                }
-                
-                label.setText(prefix + value);
+            List<FlatMenuItem> flatItems = getFlatMenuItems();
+            if (row >= 0 && row < flatItems.size()) {
+                FlatMenuItem flatItem = flatItems.get(row);
+                label.setIcon(markerFor(flatItem));
+                label.setBorder(indentBorder(label.getBorder(), hasFocus ? 1 : 0, flatItem.depth));
+            } else {
+                label.setIcon(null);
             }
             
             return label;
         }
+        
+        private Border indentBorder(Border base, int focus, int depth) {
+            if (base != bases[focus]) {
+                bases[focus] = base; // Cambió el Look and Feel
+                indents[focus] = new Border[0];
+            }
+            Border[] borders = indents[focus];
+            if (depth >= borders.length) {
+                borders = Arrays.copyOf(borders, depth + 1);
+                indents[focus] = borders;
+            }
+            if (borders[depth] == null) {
+                Border indent = new EmptyBorder(0, depth * INDENT, 0, 0);
+                borders[depth] = base != null ? BorderFactory.createCompoundBorder(base, indent) : indent;
+            }
+            return borders[depth];
+        }
+    }
+    
+    private static final Icon EXPANDED_MARKER = new MarkerIcon(MarkerIcon.EXPANDED);
+    private static final Icon COLLAPSED_MARKER = new MarkerIcon(MarkerIcon.COLLAPSED);
+    private static final Icon LEAF_MARKER = new MarkerIcon(MarkerIcon.LEAF);
+    
+    /**
+     * Marca según el nivel y si tiene hijos; los ítems de nivel superior sin
+     * hijos no llevan marca
+     */
+    private static Icon markerFor(FlatMenuItem row) {
+        if (row.node.isHasChildren()) {
+            return row.node.isExpanded() ? EXPANDED_MARKER : COLLAPSED_MARKER;
+        }
+        return row.depth > 0 ? LEAF_MARKER : null;
+    }
+    
+    /**
+     * Triángulo de expandido/colapsado o punto de ítem hoja
+     */
+    private static final class MarkerIcon implements Icon {
+        static final int LEAF = 0, EXPANDED = 1, COLLAPSED = 2;
+        private static final int SIZE = 8;
+        private static final Polygon DOWN = new Polygon(new int[] {0, SIZE, SIZE / 2}, new int[] {1, 1, SIZE - 1}, 3);
+        private static final Polygon RIGHT = new Polygon(new int[] {1, SIZE - 1, 1}, new int[] {0, SIZE / 2, SIZE}, 3);
+        private final int type;
+        
+        MarkerIcon(int type) {
+            this.type = type;
+        }
+        
+        @Override
+        public void paintIcon(Component c, Graphics g, int x, int y) {
+            Graphics2D g2 = (Graphics2D) g.create();
+            try {
+                g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                g2.setColor(c.getForeground());
+                g2.translate(x, y);
+                switch (type) {
+                    case EXPANDED:
+                        g2.fill(DOWN);
+                        break;
+                    case COLLAPSED:
+                        g2.fill(RIGHT);
+                        break;
+                    default:
+                        g2.fillOval(2, 2, SIZE - 4, SIZE - 4);
+                }
+            } finally {
+                g2.dispose();
+            }
+        }
+        
+        @Override
+        public int getIconWidth() {
+            return SIZE;
+        }
+        
+        @Override
+        public int getIconHeight() {
+            return SIZE;
+        }
     }
     
     /**
@@ -794,12 +963,11 @@ public class SideMenuModelEditor extends PropertyEditorSupport {
                 boolean isSelected, int row, int column) {
 
             // Inicializar con los valores actuales del ítem
-            if (row >= 0 && row < getFlatMenuItems().size()) {
-                SideMenuItem item = getFlatMenuItems().get(row).item;
-                if (item != null) {
-                    currentIcon = item.getIcon();
-                    currentIconPath = item.getIconPath();
-                }
+            List<FlatMenuItem> flatItems = getFlatMenuItems();
+            if (row >= 0 && row < flatItems.size()) {
+                SideMenuModelSnapshot.Node node = flatItems.get(row).node;
+                currentIcon = node.getItem().getIcon();
+                currentIconPath = node.getIconPath();
             } else {
                 currentIcon = null;
                 currentIconPath = null;
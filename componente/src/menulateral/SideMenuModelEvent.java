@@ -0,0 +1,80 @@
+package menulateral;
+
+import java.util.Arrays;
+import java.util.EventObject;
+
+/**
+ * Evento detallado de un cambio en un SideMenuModel.
+ * Indica el padre de los ítems afectados (null para el nivel superior),
+ * sus índices dentro del padre y los propios ítems.
+ */
+public class SideMenuModelEvent extends EventObject {
+
+    /**
+     * Tipo de cambio
+     */
+    public enum Type {
+        INSERTED, REMOVED, CHANGED, MOVED
+    }
+
+    private final Type type;
+    private final transient SideMenuItem parent;
+    private final int[] childIndices;
+    private final transient SideMenuItem[] items;
+    private final int[] previousIndices;
+
+    public SideMenuModelEvent(SideMenuModel source, Type type, SideMenuItem parent,
+            int[] childIndices, SideMenuItem[] items) {
+        this(source, type, parent, childIndices, items, null);
+    }
+
+    /**
+     * @param previousIndices Índices anteriores de los ítems (solo para MOVED)
+     */
+    public SideMenuModelEvent(SideMenuModel source, Type type, SideMenuItem parent,
+            int[] childIndices, SideMenuItem[] items, int[] previousIndices) {
+        super(source);
+        this.type = type;
+        this.parent = parent;
+        this.childIndices = childIndices;
+        this.items = items;
+        this.previousIndices = previousIndices;
+    }
+
+    public SideMenuModel getModel() {
+        return (SideMenuModel) getSource();
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Padre de los ítems afectados o null si son ítems de nivel superior
+     */
+    public SideMenuItem getParent() {
+        return parent;
+    }
+
+    public int[] getChildIndices() {
+        return childIndices.clone();
+    }
+
+    public SideMenuItem[] getItems() {
+        return items.clone();
+    }
+
+    /**
+     * Índices que tenían los ítems antes de moverse, o null si el evento no es MOVED
+     */
+    public int[] getPreviousIndices() {
+        return previousIndices != null ? previousIndices.clone() : null;
+    }
+
+    @Override
+    public String toString() {
+        return "SideMenuModelEvent[" + type + ", parent=" + parent
+                + ", indices=" + Arrays.toString(childIndices)
+                + ", items=" + Arrays.toString(items) + "]";
+    }
+}
@@ -0,0 +1,30 @@
+package menulateral;
+
+import java.util.EventListener;
+
+/**
+ * Listener con eventos detallados de los cambios en un SideMenuModel.
+ * Todos los métodos se invocan en el EDT.
+ */
+public interface SideMenuModelListener extends EventListener {
+
+    /**
+     * Se insertaron ítems (en el nivel superior o como hijos de un ítem)
+     */
+    void itemsInserted(SideMenuModelEvent e);
+
+    /**
+     * Se eliminaron ítems; los índices son los que tenían antes de eliminarse
+     */
+    void itemsRemoved(SideMenuModelEvent e);
+
+    /**
+     * Cambiaron propiedades de los ítems (texto, icono, estado, etc.)
+     */
+    void itemsChanged(SideMenuModelEvent e);
+
+    /**
+     * Los ítems cambiaron de posición dentro del mismo padre
+     */
+    void itemsMoved(SideMenuModelEvent e);
+}
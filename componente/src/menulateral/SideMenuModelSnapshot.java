@@ -0,0 +1,237 @@
+package menulateral;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Copia inmutable del árbol de un SideMenuModel en una versión dada.
+ * Se obtiene con {@link SideMenuModel#getSnapshot()} y puede recorrerse
+ * desde cualquier hilo: los cambios posteriores del modelo no la alteran.
+ * Las copias sucesivas comparten los subárboles que no cambiaron: solo se
+ * vuelven a crear los nodos del camino desde cada ítem modificado hasta el
+ * nivel superior.
+ */
+public final class SideMenuModelSnapshot {
+
+    /**
+     * Estado de un ítem en el momento de la copia
+     */
+    public static final class Node {
+        private final SideMenuItem item;
+        private final String text;
+        private final String tooltip;
+        private final String iconPath;
+        private final boolean enabled;
+        private final boolean shown;
+        private final boolean expanded;
+        private final boolean hasChildren;
+        private final int level;
+        private final Object userData;
+        private final List<Node> children;
+        private final int size; // Este nodo y todos sus descendientes
+
+        private Node(SideMenuItem item, List<Node> children, int size) {
+            this.item = item;
+            this.text = item.getText();
+            this.tooltip = item.getTooltip();
+            this.iconPath = item.getIconPath();
+            this.enabled = item.isEnabled();
+            this.shown = item.isShown();
+            this.expanded = item.isExpanded();
+            this.hasChildren = item.isHasChildren();
+            this.level = item.getLevel();
+            this.userData = item.getUserData();
+            this.children = children;
+            this.size = size;
+        }
+
+        private Node(Node base, SideMenuItem item, String text, String tooltip, String iconPath,
+                boolean enabled, boolean shown, boolean expanded, boolean hasChildren, List<Node> children) {
+            this.item = item;
+            this.text = text;
+            this.tooltip = tooltip;
+            this.iconPath = iconPath;
+            this.enabled = enabled;
+            this.shown = shown;
+            this.expanded = expanded;
+            this.hasChildren = hasChildren;
+            this.level = base.level;
+            this.userData = base.userData;
+            this.children = children;
+            int size = 1;
+            for (Node child : children) {
+                size += child.size;
+            }
+            this.size = size;
+        }
+
+        // Copias modificadas de un nodo, para el editor del modelo: el nodo
+        // original y los subárboles que no cambian se comparten sin tocarlos
+
+        /**
+         * Nodo sin hijos para un ítem nuevo que no pertenece a ningún modelo
+         */
+        static Node of(SideMenuItem item, int level) {
+            item.setLevel(level);
+            return new Node(item, Collections.emptyList(), 1);
+        }
+
+        Node withProperties(String text, String tooltip, boolean enabled, boolean shown, boolean expanded) {
+            return new Node(this, item, text, tooltip, iconPath, enabled, shown, expanded, hasChildren, children);
+        }
+
+        /**
+         * Copia que toma el icono de otro ítem (una copia separada del original)
+         */
+        Node withIcon(SideMenuItem iconSource, String iconPath) {
+            return new Node(this, iconSource, text, tooltip, iconPath, enabled, shown, expanded, hasChildren, children);
+        }
+
+        Node withChildren(List<Node> children) {
+            List<Node> copy = children.isEmpty()
+                    ? Collections.emptyList() : Collections.unmodifiableList(Arrays.asList(children.toArray(new Node[0])));
+            return new Node(this, item, text, tooltip, iconPath, enabled, shown, expanded, !copy.isEmpty(), copy);
+        }
+
+        /**
+         * Cantidad de nodos de este subárbol, incluyendo este
+         */
+        int size() {
+            return size;
+        }
+
+        /**
+         * Ítem vivo del modelo (sus propiedades pueden haber cambiado desde la copia)
+         */
+        public SideMenuItem getItem() {
+            return item;
+        }
+
+        public String getKey() {
+            return item.getKey();
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public String getTooltip() {
+            return tooltip;
+        }
+
+        public String getIconPath() {
+            return iconPath;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public boolean isShown() {
+            return shown;
+        }
+
+        public boolean isExpanded() {
+            return expanded;
+        }
+
+        public boolean isHasChildren() {
+            return hasChildren;
+        }
+
+        public int getLevel() {
+            return level;
+        }
+
+        public Object getUserData() {
+            return userData;
+        }
+
+        public List<Node> getChildren() {
+            return children;
+        }
+
+        @Override
+        public String toString() {
+            return text != null ? text : "";
+        }
+    }
+
+    private final long version;
+    private final List<Node> items;
+    private final int nodeCount;
+
+    /**
+     * Copia el árbol; el modelo la construye con su bloqueo tomado
+     */
+    SideMenuModelSnapshot(long version, List<SideMenuItem> roots) {
+        this.version = version;
+        this.items = copy(roots);
+        int count = 0;
+        for (Node node : items) {
+            count += node.size;
+        }
+        this.nodeCount = count;
+    }
+
+    private static List<Node> copy(List<SideMenuItem> source) {
+        if (source.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Node[] nodes = new Node[source.size()];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = nodeOf(source.get(i));
+        }
+        return Collections.unmodifiableList(Arrays.asList(nodes));
+    }
+
+    // Reutiliza el nodo de la copia anterior si el ítem y sus hijos no cambiaron
+    private static Node nodeOf(SideMenuItem item) {
+        Node node = item.getSnapshotNode();
+        if (node == null) {
+            List<Node> children = copy(item.childList());
+            int size = 1;
+            for (Node child : children) {
+                size += child.size;
+            }
+            node = new Node(item, children, size);
+            item.setSnapshotNode(node);
+        }
+        return node;
+    }
+
+    /**
+     * Versión del modelo copiada; aumenta con cada cambio del modelo
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Ítems de nivel superior
+     */
+    public List<Node> getItems() {
+        return items;
+    }
+
+    public int getItemCount() {
+        return items.size();
+    }
+
+    public Node getItem(int index) {
+        return (index >= 0 && index < items.size()) ? items.get(index) : null;
+    }
+
+    /**
+     * Cantidad total de ítems, incluyendo los anidados
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    @Override
+    public String toString() {
+        return "SideMenuModelSnapshot[version " + version + ", " + nodeCount + " items]";
+    }
+}
@@ -0,0 +1,143 @@
+package menulateral;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Árbol de prefijos sobre las palabras del texto de los ítems. Cada ítem se
+ * guarda en el nodo final de cada una de sus palabras, así que una búsqueda
+ * por prefijo solo recorre el subárbol de ese prefijo. Las palabras se
+ * comparan en minúsculas y sin acentos ("config" encuentra "Configuración").
+ */
+final class SideMenuPrefixTrie {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final class Node {
+        Map<Character, Node> children; // Se crea con el primer hijo
+        Set<SideMenuItem> items;       // Ítems con una palabra que termina aquí
+    }
+
+    private final Node root = new Node();
+
+    void add(String text, SideMenuItem item) {
+        for (String word : words(text)) {
+            Node node = root;
+            for (int i = 0; i < word.length(); i++) {
+                if (node.children == null) {
+                    node.children = new HashMap<>(4);
+                }
+                node = node.children.computeIfAbsent(word.charAt(i), c -> new Node());
+            }
+            if (node.items == null) {
+                node.items = Collections.newSetFromMap(new IdentityHashMap<>(2));
+            }
+            node.items.add(item);
+        }
+    }
+
+    void remove(String text, SideMenuItem item) {
+        for (String word : words(text)) {
+            remove(root, word, 0, item);
+        }
+    }
+
+    // Quita el ítem y poda los nodos que quedan vacíos; true si el nodo quedó vacío
+    private static boolean remove(Node node, String word, int depth, SideMenuItem item) {
+        if (depth == word.length()) {
+            if (node.items != null) {
+                node.items.remove(item);
+                if (node.items.isEmpty()) {
+                    node.items = null;
+                }
+            }
+        } else if (node.children != null) {
+            Character c = word.charAt(depth);
+            Node child = node.children.get(c);
+            if (child != null && remove(child, word, depth + 1, item)) {
+                node.children.remove(c);
+                if (node.children.isEmpty()) {
+                    node.children = null;
+                }
+            }
+        }
+        return node.items == null && node.children == null;
+    }
+
+    /**
+     * Ítems con alguna palabra que empieza por el prefijo (ya normalizado)
+     */
+    Set<SideMenuItem> findByPrefix(String prefix) {
+        Set<SideMenuItem> result = Collections.newSetFromMap(new IdentityHashMap<>());
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.children != null ? node.children.get(prefix.charAt(i)) : null;
+        }
+        if (node != null) {
+            collect(node, result);
+        }
+        return result;
+    }
+
+    private static void collect(Node node, Set<SideMenuItem> result) {
+        if (node.items != null) {
+            result.addAll(node.items);
+        }
+        if (node.children != null) {
+            for (Node child : node.children.values()) {
+                collect(child, result);
+            }
+        }
+    }
+
+    /**
+     * Texto en minúsculas y sin acentos
+     */
+    static String normalize(String text) {
+        if (text == null) return "";
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Palabras normalizadas del texto
+     */
+    static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        for (String word : SEPARATORS.split(normalize(text))) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Indica si cada término es prefijo de alguna palabra del texto
+     *
+     * @param terms Términos ya normalizados, por ejemplo de {@link #words(String)}
+     */
+    static boolean matches(String text, List<String> terms) {
+        List<String> words = words(text);
+        for (String term : terms) {
+            boolean found = false;
+            for (String word : words) {
+                if (word.startsWith(term)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,80 @@
+package menulateral;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+
+/**
+ * Imagen capturada del contenido del menú para pintar las transiciones.
+ * El ráster de referencia se guarda en un BufferedImage y se copia a un
+ * VolatileImage (acelerado) que se restaura si el sistema pierde su contenido.
+ */
+final class SideMenuSnapshot {
+
+    private final BufferedImage image;
+    private final int width;  // Tamaño lógico
+    private final int height;
+    private VolatileImage volatileImage;
+
+    /**
+     * @param image Ráster capturado, posiblemente a mayor resolución que el tamaño lógico
+     * @param width Ancho lógico en el que se dibuja
+     * @param height Alto lógico en el que se dibuja
+     */
+    SideMenuSnapshot(BufferedImage image, int width, int height) {
+        this.image = image;
+        this.width = width;
+        this.height = height;
+    }
+
+    int getWidth() {
+        return width;
+    }
+
+    /**
+     * Dibuja la captura en (0, 0) con su tamaño lógico
+     *
+     * @param g Destino
+     * @param gc Configuración gráfica del componente, o null si no se muestra
+     */
+    void draw(Graphics2D g, GraphicsConfiguration gc) {
+        if (gc == null) {
+            g.drawImage(image, 0, 0, width, height, null);
+            return;
+        }
+
+        do {
+            int status = volatileImage != null ? volatileImage.validate(gc) : VolatileImage.IMAGE_INCOMPATIBLE;
+            if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+                flush();
+                volatileImage = gc.createCompatibleVolatileImage(image.getWidth(), image.getHeight(), Transparency.TRANSLUCENT);
+                if (volatileImage == null) {
+                    g.drawImage(image, 0, 0, width, height, null);
+                    return;
+                }
+                restore();
+            } else if (status == VolatileImage.IMAGE_RESTORED) {
+                restore();
+            }
+            g.drawImage(volatileImage, 0, 0, width, height, null);
+        } while (volatileImage.contentsLost());
+    }
+
+    // Copia el ráster de referencia a la imagen acelerada
+    private void restore() {
+        Graphics2D g2d = volatileImage.createGraphics();
+        g2d.setComposite(AlphaComposite.Src);
+        g2d.drawImage(image, 0, 0, null);
+        g2d.dispose();
+    }
+
+    /**
+     * Libera la imagen acelerada
+     */
+    void flush() {
+        if (volatileImage != null) {
+            volatileImage.flush();
+            volatileImage = null;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package menulateral;
+
+import java.awt.*;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import javax.swing.*;
+
+/**
+ * Contenedor virtualizado para menús muy grandes.
+ * Solo crea (y reutiliza) paneles para las filas que intersectan el área
+ * visible del JViewport; la geometría de cada fila se calcula a partir de la
+ * lista plana de ítems visibles.
+ */
+class SideMenuVirtualPanel extends JPanel implements Scrollable {
+
+    /**
+     * Fábrica de paneles para las filas
+     */
+    interface PanelFactory {
+        SideMenuItemPanel createPanel(SideMenuItem item);
+    }
+
+    private static final int ROW_GAP = 2; // Mismo espaciado que el modo normal
+
+    private final PanelFactory factory;
+    private List<SideMenuItem> rows = new ArrayList<>();
+    private final Map<SideMenuItem, SideMenuItemPanel> activePanels = new IdentityHashMap<>();
+    private final Deque<SideMenuItemPanel> freePanels = new ArrayDeque<>();
+    private int rowHeight;
+
+    SideMenuVirtualPanel(PanelFactory factory) {
+        super(null);
+        this.factory = factory;
+        setOpaque(false);
+    }
+
+    /**
+     * Establece la lista plana de ítems a mostrar
+     */
+    void setRows(List<SideMenuItem> rows) {
+        this.rows = rows;
+        revalidate();
+        layoutVisibleRows();
+        repaint();
+    }
+
+    List<SideMenuItem> getRows() {
+        return rows;
+    }
+
+    /**
+     * Descarta todos los paneles (activos y libres) para volver a crearlos
+     * con las propiedades visuales actuales
+     */
+    void discardPanels() {
+        removeAll();
+        activePanels.clear();
+        freePanels.clear();
+        rowHeight = 0;
+        revalidate();
+        repaint();
+    }
+
+    /**
+     * Aplica una acción a todos los paneles, tanto los mostrados como los
+     * que esperan en el pool para ser reutilizados
+     */
+    void forEachPanel(Consumer<SideMenuItemPanel> action) {
+        activePanels.values().forEach(action);
+        freePanels.forEach(action);
+    }
+
+    int getRowHeight() {
+        if (rowHeight == 0) {
+            if (rows.isEmpty()) {
+                return 0;
+            }
+            // Medir con un panel de muestra que queda en el pool
+            SideMenuItemPanel sample = obtainPanel(rows.get(0));
+            rowHeight = sample.getPreferredSize().height + ROW_GAP;
+            freePanels.push(sample);
+        }
+        return rowHeight;
+    }
+
+    /**
+     * Índice de la fila en la coordenada y, o -1 si no hay fila
+     */
+    int rowAtPoint(int y) {
+        int height = getRowHeight();
+        if (height == 0 || y < 0) return -1;
+        int row = y / height;
+        return row < rows.size() ? row : -1;
+    }
+
+    /**
+     * Panel mostrado en la coordenada y, o null si no hay fila
+     */
+    SideMenuItemPanel panelAt(int y) {
+        int row = rowAtPoint(y);
+        return row >= 0 ? activePanels.get(rows.get(row)) : null;
+    }
+
+    @Override
+    public void doLayout() {
+        layoutVisibleRows();
+    }
+
+    /**
+     * Coloca paneles solo para las filas que intersectan el área visible.
+     * Debe llamarse también cuando el JViewport cambia de posición.
+     */
+    void layoutVisibleRows() {
+        int height = getRowHeight();
+        Rectangle visible = getVisibleRect();
+        int first = 0;
+        int last = -1;
+        if (height > 0 && !rows.isEmpty()) {
+            first = Math.max(0, visible.y / height);
+            last = Math.min(rows.size() - 1, (visible.y + visible.height) / height);
+        }
+
+        // Liberar los paneles de filas que salieron del área visible
+        Map<SideMenuItem, Integer> wanted = new IdentityHashMap<>();
+        for (int i = first; i <= last; i++) {
+            wanted.put(rows.get(i), i);
+        }
+        Iterator<Map.Entry<SideMenuItem, SideMenuItemPanel>> it = activePanels.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<SideMenuItem, SideMenuItemPanel> entry = it.next();
+            if (!wanted.containsKey(entry.getKey())) {
+                SideMenuItemPanel panel = entry.getValue();
+                remove(panel);
+                freePanels.push(panel);
+                it.remove();
+            }
+        }
+
+        // Asignar paneles a las filas visibles
+        int width = getWidth();
+        for (int i = first; i <= last; i++) {
+            SideMenuItem item = rows.get(i);
+            SideMenuItemPanel panel = activePanels.get(item);
+            if (panel == null) {
+                panel = obtainPanel(item);
+                activePanels.put(item, panel);
+                add(panel);
+            } else {
+                panel.refreshIfChanged();
+            }
+            panel.setBounds(0, i * height, width, height - ROW_GAP);
+            panel.doLayout();
+        }
+    }
+
+    private SideMenuItemPanel obtainPanel(SideMenuItem item) {
+        SideMenuItemPanel panel = freePanels.poll();
+        if (panel == null) {
+            return factory.createPanel(item);
+        }
+        if (panel.getMenuItem() != item) {
+            panel.setMenuItem(item);
+        } else {
+            panel.refreshIfChanged();
+        }
+        return panel;
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        return new Dimension(0, rows.size() * getRowHeight());
+    }
+
+    // === Scrollable ===
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return getPreferredSize();
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return Math.max(1, getRowHeight());
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.VERTICAL ? visibleRect.height : visibleRect.width;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return true;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return false;
+    }
+}
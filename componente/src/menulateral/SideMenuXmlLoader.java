@@ -0,0 +1,248 @@
+package menulateral;
+
+import java.awt.event.ActionListener;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Carga un menú declarado en XML leyéndolo con un parser de flujo (StAX):
+ * cada elemento se convierte directamente en un SideMenuItem, sin construir
+ * antes un árbol DOM.
+ * <pre>
+ * &lt;menu&gt;
+ *   &lt;item key="config" text="Configuración" icon="/icons/config.png"
+ *         tooltip="Opciones" expanded="true"&gt;
+ *     &lt;item text="Usuarios" action="usuarios.abrir"/&gt;
+ *     &lt;item text="Permisos" enabled="false" shown="true"/&gt;
+ *   &lt;/item&gt;
+ * &lt;/menu&gt;
+ * </pre>
+ * Todos los atributos son opcionales. Los errores (XML mal formado,
+ * elementos o atributos desconocidos, valores incorrectos, claves repetidas
+ * o acciones inexistentes) se informan con {@link SideMenuLoadException},
+ * que indica la línea y la columna.
+ */
+public final class SideMenuXmlLoader {
+
+    private static final String MENU = "menu";
+    private static final String ITEM = "item";
+
+    private SideMenuXmlLoader() {
+    }
+
+    /**
+     * Crea un modelo nuevo con el menú del archivo
+     *
+     * @param resolver Traduce los atributos action; puede ser null si el menú no los usa
+     */
+    public static SideMenuModel load(Path file, SideMenuActionResolver resolver) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return load(in, resolver);
+        }
+    }
+
+    /**
+     * Crea un modelo nuevo con el menú leído del stream (no lo cierra)
+     */
+    public static SideMenuModel load(InputStream in, SideMenuActionResolver resolver) throws IOException {
+        return new SideMenuModel(parse(in, resolver));
+    }
+
+    /**
+     * Agrega al modelo los ítems del menú en un único lote: los listeners
+     * reciben un solo cambio. Si hay un error no se agrega nada.
+     */
+    public static void loadInto(SideMenuModel model, InputStream in, SideMenuActionResolver resolver)
+            throws IOException {
+        model.addAll(parse(in, resolver));
+    }
+
+    private static List<SideMenuItem> parse(InputStream in, SideMenuActionResolver resolver) throws IOException {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        // Las definiciones no necesitan DTD ni entidades externas
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+        XMLStreamReader reader = null;
+        try {
+            reader = factory.createXMLStreamReader(in);
+            return new Parser(reader, resolver).parse();
+        } catch (XMLStreamException e) {
+            Location location = e.getLocation();
+            // El mensaje de StAX repite la posición antes de "Message: "
+            String message = e.getMessage();
+            int start = message != null ? message.indexOf("Message: ") : -1;
+            if (start >= 0) {
+                message = message.substring(start + "Message: ".length());
+            }
+            throw new SideMenuLoadException("XML mal formado: " + message,
+                    location != null ? location.getLineNumber() : -1,
+                    location != null ? location.getColumnNumber() : -1, e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException e) {
+                    // El stream lo cierra quien lo abrió
+                }
+            }
+        }
+    }
+
+    /**
+     * Estado de una lectura: la pila de ítems abiertos y las claves vistas
+     */
+    private static final class Parser {
+        private final XMLStreamReader reader;
+        private final SideMenuActionResolver resolver;
+        private final List<SideMenuItem> roots = new ArrayList<>();
+        private final ArrayDeque<SideMenuItem> open = new ArrayDeque<>();
+        private final ArrayDeque<Boolean> expanded = new ArrayDeque<>();
+        private final Set<String> keys = new HashSet<>();
+
+        Parser(XMLStreamReader reader, SideMenuActionResolver resolver) {
+            this.reader = reader;
+            this.resolver = resolver;
+        }
+
+        List<SideMenuItem> parse() throws XMLStreamException, SideMenuLoadException {
+            boolean inMenu = false;
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        String name = reader.getLocalName();
+                        if (!inMenu) {
+                            if (!MENU.equals(name)) {
+                                throw error("se esperaba <" + MENU + "> y se encontró <" + name + ">");
+                            }
+                            checkNoAttributes();
+                            inMenu = true;
+                        } else if (ITEM.equals(name)) {
+                            startItem();
+                        } else {
+                            throw error("elemento desconocido <" + name + ">");
+                        }
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        if (!open.isEmpty()) {
+                            endItem();
+                        }
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.CDATA:
+                        if (!reader.isWhiteSpace()) {
+                            throw error("texto no permitido: \"" + reader.getText().trim() + "\"");
+                        }
+                        break;
+                    default:
+                        break; // Comentarios, instrucciones de proceso y espacios
+                }
+            }
+            if (!inMenu) {
+                throw error("falta el elemento <" + MENU + ">");
+            }
+            return roots;
+        }
+
+        private void startItem() throws SideMenuLoadException {
+            String key = null;
+            String text = "";
+            String icon = null;
+            String tooltip = null;
+            String action = null;
+            boolean enabled = true;
+            boolean shown = true;
+            boolean expand = false;
+
+            for (int i = 0; i < reader.getAttributeCount(); i++) {
+                String value = reader.getAttributeValue(i);
+                switch (reader.getAttributeLocalName(i)) {
+                    case "key" -> key = value;
+                    case "text" -> text = value;
+                    case "icon" -> icon = value;
+                    case "tooltip" -> tooltip = value;
+                    case "action" -> action = value;
+                    case "enabled" -> enabled = parseBoolean("enabled", value);
+                    case "shown" -> shown = parseBoolean("shown", value);
+                    case "expanded" -> expand = parseBoolean("expanded", value);
+                    default -> throw error("atributo desconocido \"" + reader.getAttributeLocalName(i) + "\"");
+                }
+            }
+
+            SideMenuItem item;
+            if (key != null) {
+                if (key.isEmpty()) {
+                    throw error("la clave no puede estar vacía");
+                }
+                if (!keys.add(key)) {
+                    throw error("clave repetida \"" + key + "\"");
+                }
+                item = new SideMenuItem(key, text, icon, tooltip);
+            } else {
+                item = new SideMenuItem(text, icon, tooltip);
+            }
+            item.setEnabled(enabled);
+            item.setShown(shown);
+            if (action != null) {
+                item.setActionListener(resolveAction(action));
+            }
+
+            // El ítem aún no tiene modelo: agregarlo a su padre no genera eventos
+            if (open.isEmpty()) {
+                roots.add(item);
+            } else {
+                open.peek().addChild(item);
+            }
+            open.push(item);
+            expanded.push(expand);
+        }
+
+        private void endItem() {
+            SideMenuItem item = open.pop();
+            // Se expande al final, cuando ya tiene sus hijos
+            if (expanded.pop()) {
+                item.setExpanded(true);
+            }
+        }
+
+        private ActionListener resolveAction(String action) throws SideMenuLoadException {
+            if (resolver == null) {
+                throw error("la acción \"" + action + "\" requiere un SideMenuActionResolver");
+            }
+            ActionListener listener = resolver.resolveAction(action);
+            if (listener == null) {
+                throw error("acción desconocida \"" + action + "\"");
+            }
+            return listener;
+        }
+
+        private boolean parseBoolean(String attribute, String value) throws SideMenuLoadException {
+            if ("true".equals(value)) return true;
+            if ("false".equals(value)) return false;
+            throw error("el atributo \"" + attribute + "\" debe ser true o false, no \"" + value + "\"");
+        }
+
+        private void checkNoAttributes() throws SideMenuLoadException {
+            if (reader.getAttributeCount() > 0) {
+                throw error("atributo desconocido \"" + reader.getAttributeLocalName(0) + "\"");
+            }
+        }
+
+        private SideMenuLoadException error(String message) {
+            Location location = reader.getLocation();
+            return new SideMenuLoadException(message, location.getLineNumber(), location.getColumnNumber(), null);
+        }
+    }
+}
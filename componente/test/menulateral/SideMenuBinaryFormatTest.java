@@ -0,0 +1,113 @@
+package menulateral;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas del formato binario del modelo
+ */
+public class SideMenuBinaryFormatTest {
+
+    private SideMenuModel model;
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        model = new SideMenuModel();
+        SideMenuItem config = new SideMenuItem("config", "Configuración", "/icons/config.png", "Ajustes");
+        config.setUserData("/config");
+        config.setExpanded(true);
+        SideMenuItem users = new SideMenuItem("users", "Usuarios", null, null);
+        users.setEnabled(false);
+        config.addChild(users);
+        users.addChild(new SideMenuItem("roles", "Roles", null, null));
+        SideMenuItem hidden = new SideMenuItem("oculto", "Configuración", null, null); // Texto repetido
+        hidden.setShown(false);
+        config.addChild(hidden);
+        model.addItem(config);
+        model.addItem(new SideMenuItem("help", "Ayuda", "/icons/ayuda.png", null));
+
+        file = Files.createTempFile("menu", ".smnu");
+        SideMenuBinaryFormat.write(model, file);
+    }
+
+    @Test
+    public void readRestoresTreeAndProperties() throws IOException {
+        SideMenuModel copy = SideMenuBinaryFormat.read(file);
+
+        assertEquals(2, copy.getItemCount());
+        SideMenuItem config = copy.getItem(0);
+        assertEquals("config", config.getKey());
+        assertEquals("Configuración", config.getText());
+        assertEquals("Ajustes", config.getTooltip());
+        assertEquals("/icons/config.png", config.getIconPath());
+        assertEquals("/config", config.getUserData());
+        assertTrue(config.isExpanded());
+
+        SideMenuItem users = config.getChild(0);
+        assertFalse(users.isEnabled());
+        assertEquals(1, users.getLevel());
+        assertEquals("Roles", users.getChild(0).getText());
+        assertEquals(2, users.getChild(0).getLevel());
+        assertFalse(config.getChild(1).isShown());
+        assertEquals("Configuración", config.getChild(1).getText());
+        assertEquals("help", copy.getItem(1).getKey());
+        assertSame(users.getChild(0), copy.findItemByKey("roles"));
+    }
+
+    @Test
+    public void readDoesNotKeepTheFileOpen() throws IOException {
+        SideMenuBinaryFormat.read(file);
+
+        // Se puede reemplazar y borrar en cuanto termina la lectura
+        model.removeItem(1);
+        SideMenuBinaryFormat.write(model, file);
+        assertEquals(1, SideMenuBinaryFormat.read(file).getItemCount());
+        Files.delete(file);
+    }
+
+    @Test
+    public void openReadsNodesWithoutBuildingItems() throws IOException {
+        SideMenuBinaryFormat.Reader reader = SideMenuBinaryFormat.open(file);
+
+        assertEquals(5, reader.getNodeCount());
+        assertEquals(2, reader.getRootCount());
+        assertEquals("Ayuda", reader.getText(1));
+        int first = reader.getFirstChild(0);
+        assertEquals(2, reader.getChildCount(0));
+        assertEquals("users", reader.getKey(first));
+        assertNull(reader.getTooltip(first));
+        assertEquals("Usuarios", reader.toItem(first).getText());
+    }
+
+    @Test(expected = IOException.class)
+    public void invalidFileIsRejected() throws IOException {
+        Files.write(file, new byte[] {1, 2, 3, 4});
+        SideMenuBinaryFormat.read(file);
+    }
+
+    @Test
+    public void childCountIsCheckedAgainstFlags() throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        int nodesStart = bytes.length - 5 * 32;
+        bytes[nodesStart + 20 + 3] &= ~(1 << 3); // Quita HAS_CHILDREN de "config", que tiene dos hijos
+        Files.write(file, bytes);
+
+        try {
+            SideMenuBinaryFormat.read(file);
+            fail("Se esperaba IllegalStateException");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("cantidad de hijos incorrecta en el nodo 0"));
+        }
+    }
+
+    @Test(expected = UncheckedIOException.class)
+    public void missingResourceIsAnError() {
+        SideMenuBinaryFormat.readResource("/no/existe.smnu");
+    }
+}
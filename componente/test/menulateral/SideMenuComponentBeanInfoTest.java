@@ -0,0 +1,31 @@
+package menulateral;
+
+import java.beans.PropertyDescriptor;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de las propiedades publicadas en el Property Sheet
+ */
+public class SideMenuComponentBeanInfoTest {
+
+    @Test
+    public void everyPropertyHasAccessorsAndDescription() {
+        PropertyDescriptor[] properties = new SideMenuComponentBeanInfo().getPropertyDescriptors();
+
+        assertNotNull(properties);
+        Set<String> names = new HashSet<>();
+        for (PropertyDescriptor property : properties) {
+            assertNotNull(property);
+            assertTrue(property.getName(), names.add(property.getName()));
+            assertNotNull(property.getName(), property.getReadMethod());
+            assertNotNull(property.getName(), property.getWriteMethod());
+            assertNotNull(property.getName(), property.getShortDescription());
+        }
+        assertTrue(names.contains("loadingText"));
+        assertTrue(names.contains("filterVisible"));
+        assertTrue(names.contains("commandPaletteEnabled"));
+    }
+}
@@ -0,0 +1,158 @@
+package menulateral;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.event.MouseEvent;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.SwingUtilities;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas del componente
+ */
+public class SideMenuComponentTest {
+
+    @Test
+    public void populatedComponentIsSerializable() throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        SideMenuComponent menu = new SideMenuComponent();
+        SideMenuModel model = new SideMenuModel();
+        SideMenuItem parent = new SideMenuItem("P");
+        parent.addChild(new SideMenuItem("C"));
+        parent.setExpanded(true);
+        model.addItem(parent);
+        model.addItem(new SideMenuItem("Q"));
+        menu.setModel(model);
+        SwingUtilities.invokeAndWait(() -> { });
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(menu);
+        }
+        SideMenuComponent copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (SideMenuComponent) in.readObject();
+        }
+
+        // Las filas se vuelven a crear y siguen los cambios del modelo
+        copy.getModel().addItem(new SideMenuItem("R"));
+        SwingUtilities.invokeAndWait(() -> { });
+        SwingUtilities.invokeAndWait(() -> { });
+        assertEquals(4, count(copy, SideMenuItemPanel.class));
+    }
+
+    @Test
+    public void clickToExpandUpdatesRowsFromModelEvent() throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        SideMenuComponent menu = new SideMenuComponent();
+        SideMenuModel model = new SideMenuModel();
+        SideMenuItem parent = new SideMenuItem("P");
+        parent.addChild(new SideMenuItem("C"));
+        model.addItem(parent);
+        menu.setModel(model);
+        SwingUtilities.invokeAndWait(() -> { });
+        assertEquals(1, count(menu, SideMenuItemPanel.class));
+
+        int[] rowsAfterClick = new int[1];
+        SwingUtilities.invokeAndWait(() -> {
+            SideMenuItemPanel panel = find(menu, SideMenuItemPanel.class);
+            panel.dispatchEvent(new MouseEvent(panel, MouseEvent.MOUSE_CLICKED, 0L, 0, 1, 1, 1, false));
+            rowsAfterClick[0] = count(menu, SideMenuItemPanel.class);
+        });
+
+        // El clic no reconcilia las filas; lo hace el evento del modelo
+        assertTrue(parent.isExpanded());
+        assertEquals(1, rowsAfterClick[0]);
+        SwingUtilities.invokeAndWait(() -> { });
+        assertEquals(2, count(menu, SideMenuItemPanel.class));
+    }
+
+    @Test
+    public void modelEventsAdjustOnlyTheirRows() throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        SideMenuComponent menu = new SideMenuComponent();
+        SideMenuModel model = new SideMenuModel();
+        SideMenuItem a = new SideMenuItem("A");
+        a.addChild(new SideMenuItem("A1"));
+        a.addChild(new SideMenuItem("A2"));
+        a.setExpanded(true);
+        model.addItem(a);
+        SideMenuItem b = new SideMenuItem("B");
+        model.addItem(b);
+        SideMenuItem c = new SideMenuItem("C");
+        c.addChild(new SideMenuItem("C1"));
+        model.addItem(c);
+        menu.setModel(model);
+        SwingUtilities.invokeAndWait(() -> { });
+        assertEquals(List.of("A", "A1", "A2", "B", "C"), texts(menu));
+        SideMenuItemPanel first = find(menu, SideMenuItemPanel.class);
+
+        model.update(m -> {
+            m.insertItem(1, new SideMenuItem("X"));
+            a.addChild(new SideMenuItem("A3"));
+            a.removeChild(0);
+            m.removeItem(b);
+            c.setExpanded(true);
+            m.moveItem(2, 0);
+        });
+        SwingUtilities.invokeAndWait(() -> { });
+        assertEquals(List.of("C", "C1", "A", "A2", "A3", "X"), texts(menu));
+
+        a.setExpanded(false);
+        a.setText("A'");
+        SwingUtilities.invokeAndWait(() -> { });
+        assertEquals(List.of("C", "C1", "A'", "X"), texts(menu));
+        assertSame(first, findPanel(menu, a)); // Los paneles que no cambian de lugar se conservan
+    }
+
+    private static List<String> texts(Container container) {
+        List<String> texts = new ArrayList<>();
+        for (Component child : container.getComponents()) {
+            if (child instanceof SideMenuItemPanel) {
+                texts.add(((SideMenuItemPanel) child).getMenuItem().getText());
+            } else if (child instanceof Container) {
+                texts.addAll(texts((Container) child));
+            }
+        }
+        return texts;
+    }
+
+    private static SideMenuItemPanel findPanel(Container container, SideMenuItem item) {
+        for (Component child : container.getComponents()) {
+            if (child instanceof SideMenuItemPanel && ((SideMenuItemPanel) child).getMenuItem() == item) {
+                return (SideMenuItemPanel) child;
+            }
+            if (child instanceof Container) {
+                SideMenuItemPanel found = findPanel((Container) child, item);
+                if (found != null) return found;
+            }
+        }
+        return null;
+    }
+
+    private static <T> T find(Container container, Class<T> type) {
+        for (Component child : container.getComponents()) {
+            if (type.isInstance(child)) return type.cast(child);
+            if (child instanceof Container) {
+                T found = find((Container) child, type);
+                if (found != null) return found;
+            }
+        }
+        return null;
+    }
+
+    private static int count(Container container, Class<?> type) {
+        int count = 0;
+        for (Component child : container.getComponents()) {
+            if (type.isInstance(child)) count++;
+            if (child instanceof Container) count += count((Container) child, type);
+        }
+        return count;
+    }
+}
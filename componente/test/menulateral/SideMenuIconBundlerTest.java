@@ -0,0 +1,42 @@
+package menulateral;
+
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import javax.imageio.ImageIO;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas del empaquetado de iconos en la compilación
+ */
+public class SideMenuIconBundlerTest {
+
+    @Test
+    public void bundlesOnlyListedIcons() throws Exception {
+        Path classes = Files.createTempDirectory("iconos");
+        Files.createDirectories(classes.resolve("icons"));
+        for (String name : new String[] {"a.png", "b.png", "c.png"}) {
+            ImageIO.write(new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB), "png",
+                    classes.resolve("icons").resolve(name).toFile());
+        }
+
+        assertEquals(2, SideMenuIconBundler.bundle(classes, "icons/a.png, icons/c.png", new int[] {24, 48}));
+        assertTrue(Files.exists(classes.resolve(SideMenuIconBundle.RESOURCE.substring(1))));
+
+        // Sin iconos que coincidan se elimina el paquete
+        assertEquals(0, SideMenuIconBundler.bundle(classes, "icons/x.png", new int[] {24}));
+        assertFalse(Files.exists(classes.resolve(SideMenuIconBundle.RESOURCE.substring(1))));
+    }
+
+    @Test
+    public void iconUrlIsResolvedWhenRequested() throws Exception {
+        // Un icono que no está en el paquete se busca (en el classpath o como archivo) al pedir la URL
+        Path file = Files.createTempFile("icono", ".png");
+        SideMenuItem item = new SideMenuItem("Archivo", file.toString());
+
+        assertEquals(file.toUri().toURL(), item.getIconUrl());
+        assertNull(new SideMenuItem("Otro", "/no/existe.png").getIconUrl());
+        Files.delete(file);
+    }
+}
@@ -0,0 +1,63 @@
+package menulateral;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import javax.swing.ImageIcon;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de la caché de iconos redimensionados
+ */
+public class SideMenuIconCacheTest {
+
+    @Test
+    public void assignedIconReplacesCachedPathIcon() {
+        SideMenuIconCache cache = new SideMenuIconCache(1 << 20);
+        SideMenuItem item = new SideMenuItem("Con ruta", "/no/existe.png");
+
+        item.setIcon(icon(Color.RED));
+        assertEquals(Color.RED.getRGB(), cache.getScaledImage(item, 24, 1.0).getRGB(12, 12));
+
+        item.setIcon(icon(Color.BLUE));
+        assertEquals(Color.BLUE.getRGB(), cache.getScaledImage(item, 24, 1.0).getRGB(12, 12));
+    }
+
+    @Test
+    public void sameIconIsServedFromCache() {
+        SideMenuIconCache cache = new SideMenuIconCache(1 << 20);
+        SideMenuItem item = new SideMenuItem("Sin ruta");
+        item.setIcon(icon(Color.GREEN));
+
+        BufferedImage first = cache.getScaledImage(item, 24, 1.0);
+
+        assertSame(first, cache.getScaledImage(item, 24, 1.0));
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void scaledEntryCountsTheLogicalRaster() {
+        SideMenuIconCache cache = new SideMenuIconCache(1 << 20);
+        SideMenuItem item = new SideMenuItem("Escalado");
+        item.setIcon(icon(Color.GREEN));
+
+        cache.getScaledIcon(item, 24, 2.0);
+
+        // Entrada de escala 1.0 (24x24) y entrada de escala 2.0 (48x48 más la base de 24x24)
+        assertEquals(2, cache.size());
+        assertEquals(24 * 24 * 4 + (48 * 48 + 24 * 24) * 4, cache.getCurrentBytes());
+
+        cache.setMaxBytes((48 * 48 + 24 * 24) * 4);
+        assertEquals(1, cache.size()); // Se expulsa la de escala 1.0, la otra sigue cabiendo con su base
+    }
+
+    private static ImageIcon icon(Color color) {
+        BufferedImage image = new BufferedImage(48, 48, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < 48; y++) {
+            for (int x = 0; x < 48; x++) {
+                image.setRGB(x, y, color.getRGB());
+            }
+        }
+        return new ImageIcon(image);
+    }
+}
@@ -0,0 +1,47 @@
+package menulateral;
+
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.swing.ImageIcon;
+import javax.swing.SwingUtilities;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de la carga de iconos en segundo plano
+ */
+public class SideMenuIconLoaderTest {
+
+    @Test
+    public void decodesOnVirtualThreadAndNotifiesOnEdt() throws Exception {
+        List<Boolean> decodedOnVirtual = new ArrayList<>();
+        SideMenuItem item = new SideMenuItem("Icono");
+        item.setIcon(new ImageIcon(new BufferedImage(48, 48, BufferedImage.TYPE_INT_ARGB)) {
+            @Override
+            public Image getImage() {
+                synchronized (decodedOnVirtual) {
+                    decodedOnVirtual.add(Thread.currentThread().isVirtual());
+                }
+                return super.getImage();
+            }
+        });
+
+        CountDownLatch done = new CountDownLatch(2);
+        List<Boolean> notifiedOnEdt = new ArrayList<>();
+        Runnable onLoaded = () -> {
+            notifiedOnEdt.add(SwingUtilities.isEventDispatchThread());
+            done.countDown();
+        };
+        SideMenuIconLoader.load(item, 24, 1.0, onLoaded);
+        SideMenuIconLoader.load(item, 24, 1.0, onLoaded); // Si sigue en curso, solo se agrega la notificación
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(true, true), notifiedOnEdt);
+        assertFalse(decodedOnVirtual.isEmpty());
+        assertFalse(decodedOnVirtual.contains(false));
+    }
+}
@@ -0,0 +1,217 @@
+package menulateral;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.swing.JTable;
+import javax.swing.SwingUtilities;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas del editor de propiedades del modelo
+ */
+public class SideMenuModelEditorTest {
+
+    private SideMenuModel live;
+    private SideMenuItem a;
+    private SideMenuItem a1;
+    private SideMenuItem b;
+
+    @Before
+    public void setUp() {
+        System.setProperty("java.awt.headless", "true");
+        live = new SideMenuModel();
+        a = new SideMenuItem("A");
+        a1 = new SideMenuItem("A1");
+        a.addChild(a1);
+        b = new SideMenuItem("B");
+        live.addItem(a);
+        live.addItem(b);
+    }
+
+    @Test
+    public void editDoesNotTouchLiveModel() throws Exception {
+        SideMenuModelEditor editor = new SideMenuModelEditor();
+        editor.setValue(live);
+        JTable table = findTable(editor.getCustomEditor());
+
+        table.getModel().setValueAt("Editado", 0, 0);
+
+        SideMenuModel edited = (SideMenuModel) editor.getValue();
+        assertNotSame(live, edited);
+        assertEquals("Editado", edited.getItem(0).getText());
+
+        // El modelo del componente sigue intacto y dueño de sus ítems
+        assertEquals("A", a.getText());
+        assertSame(a, a1.getParent());
+        assertSame(live, a1.getModel());
+        assertSame(live, b.getModel());
+        assertEquals(List.of(a, a1), live.getPath(a1));
+        assertNotSame(a1, edited.getItem(0).getChild(0));
+    }
+
+    @Test
+    public void liveModelKeepsNotifyingAfterEdit() throws Exception {
+        SideMenuModelEditor editor = new SideMenuModelEditor();
+        editor.setValue(live);
+        findTable(editor.getCustomEditor()).getModel().setValueAt("Editado", 0, 0);
+
+        List<SideMenuItem> changed = new ArrayList<>();
+        live.addSideMenuModelListener(new SideMenuModelListener() {
+            @Override
+            public void itemsInserted(SideMenuModelEvent e) {
+            }
+
+            @Override
+            public void itemsRemoved(SideMenuModelEvent e) {
+            }
+
+            @Override
+            public void itemsChanged(SideMenuModelEvent e) {
+                changed.addAll(Arrays.asList(e.getItems()));
+            }
+
+            @Override
+            public void itemsMoved(SideMenuModelEvent e) {
+            }
+        });
+        b.setText("B2");
+        a1.setText("A1b");
+        SwingUtilities.invokeAndWait(() -> { }); // Los eventos se entregan en el EDT
+
+        assertEquals(List.of(b, a1), changed);
+    }
+
+    @Test
+    public void publishedValueIsNotClonedAgain() {
+        SideMenuModelEditor editor = new SideMenuModelEditor();
+        editor.setValue(live);
+        SideMenuModel copy = (SideMenuModel) editor.getValue();
+
+        editor.setValue(copy);
+
+        assertSame(copy, editor.getValue());
+    }
+
+    @Test
+    public void valueKeepsKeysAndLevels() throws Exception {
+        a1.addChild(new SideMenuItem("A1a"));
+        a1.setExpanded(true);
+        a.setExpanded(true);
+        SideMenuModelEditor editor = new SideMenuModelEditor();
+        editor.setValue(live);
+        findTable(editor.getCustomEditor()).getModel().setValueAt("Editado", 1, 0);
+
+        SideMenuModel copy = (SideMenuModel) editor.getValue();
+
+        SideMenuItem copyA1 = copy.getItem(0).getChild(0);
+        assertEquals(a1.getKey(), copyA1.getKey());
+        assertEquals("Editado", copyA1.getText());
+        assertTrue(copyA1.isExpanded());
+        assertEquals(2, copyA1.getChild(0).getLevel());
+        assertSame(copy, copyA1.getChild(0).getModel());
+        assertEquals("A1", a1.getText());
+    }
+
+    @Test
+    public void editCopiesOnlyThePath() throws Exception {
+        a.setExpanded(true);
+        SideMenuModelEditor editor = new SideMenuModelEditor();
+        editor.setValue(live);
+        JTable table = findTable(editor.getCustomEditor());
+        List<SideMenuModelSnapshot.Node> before = editor.getRoots();
+
+        table.getModel().setValueAt(false, 1, 3); // A1 deshabilitado
+
+        List<SideMenuModelSnapshot.Node> after = editor.getRoots();
+        assertNotSame(before.get(0), after.get(0));
+        assertSame(before.get(1), after.get(1)); // B se comparte
+        assertFalse(after.get(0).getChildren().get(0).isEnabled());
+        assertTrue(before.get(0).getChildren().get(0).isEnabled());
+        assertTrue(a1.isEnabled());
+    }
+
+    @Test
+    public void externalChangeRefreshesRows() throws Exception {
+        SideMenuModelEditor editor = new SideMenuModelEditor();
+        editor.setValue(live);
+        JTable table = findTable(editor.getCustomEditor());
+        assertEquals(2, table.getRowCount());
+
+        live.addItem(new SideMenuItem("C"));
+        b.setText("B2");
+        SwingUtilities.invokeAndWait(() -> { }); // Los eventos se entregan en el EDT
+
+        assertEquals(3, table.getRowCount());
+        assertEquals("B2", table.getValueAt(1, 0));
+        assertSame(live, editor.getValue());
+    }
+
+    @Test
+    public void unwritableResourceDirFallsBackToCode() throws Exception {
+        SideMenuModel big = new SideMenuModel();
+        for (int i = 0; i < 2100; i++) {
+            big.addItem(new SideMenuItem("Item " + i));
+        }
+        Path notADirectory = Files.createTempFile("recursos", ".txt");
+        String previous = System.setProperty(SideMenuModelEditor.RESOURCE_DIR_PROPERTY, notADirectory.toString());
+        try {
+            SideMenuModelEditor editor = new SideMenuModelEditor();
+            editor.setValue(big);
+
+            String code = editor.getJavaInitializationString();
+
+            assertFalse(code.contains("readResource"));
+            assertTrue(code.contains("private void initItems10("));
+        } finally {
+            if (previous != null) {
+                System.setProperty(SideMenuModelEditor.RESOURCE_DIR_PROPERTY, previous);
+            } else {
+                System.clearProperty(SideMenuModelEditor.RESOURCE_DIR_PROPERTY);
+            }
+            Files.delete(notADirectory);
+        }
+    }
+
+    @Test
+    public void damagedResourceIsRewritten() throws Exception {
+        SideMenuModel big = new SideMenuModel();
+        for (int i = 0; i < 2100; i++) {
+            big.addItem(new SideMenuItem("Item " + i));
+        }
+        Path dir = Files.createTempDirectory("recursos");
+        System.setProperty(SideMenuModelEditor.RESOURCE_DIR_PROPERTY, dir.toString());
+        try {
+            SideMenuModelEditor editor = new SideMenuModelEditor();
+            editor.setValue(big);
+            String code = editor.getJavaInitializationString();
+            String name = code.substring(code.indexOf("\"/") + 2, code.lastIndexOf('"'));
+            Path file = dir.resolve(name);
+            Files.write(file, new byte[] {1, 2, 3}); // Escritura anterior cortada
+
+            assertEquals(code, editor.getJavaInitializationString());
+            assertEquals(2100, SideMenuBinaryFormat.read(file).getItemCount());
+        } finally {
+            System.clearProperty(SideMenuModelEditor.RESOURCE_DIR_PROPERTY);
+        }
+    }
+
+    private static JTable findTable(Component component) {
+        if (component instanceof JTable) {
+            return (JTable) component;
+        }
+        if (component instanceof Container) {
+            for (Component child : ((Container) component).getComponents()) {
+                JTable table = findTable(child);
+                if (table != null) return table;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,93 @@
+package menulateral;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de las copias inmutables del modelo
+ */
+public class SideMenuModelSnapshotTest {
+
+    private SideMenuModel model;
+    private SideMenuItem a;
+    private SideMenuItem a1;
+    private SideMenuItem b;
+    private SideMenuItem b1;
+
+    @Before
+    public void setUp() {
+        model = new SideMenuModel();
+        a = new SideMenuItem("A");
+        a1 = new SideMenuItem("A1");
+        a.addChild(a1);
+        b = new SideMenuItem("B");
+        b1 = new SideMenuItem("B1");
+        b.addChild(b1);
+        model.addItem(a);
+        model.addItem(b);
+    }
+
+    @Test
+    public void unchangedModelReturnsSameSnapshot() {
+        assertSame(model.getSnapshot(), model.getSnapshot());
+    }
+
+    @Test
+    public void changeCopiesOnlyItsPath() {
+        SideMenuModelSnapshot before = model.getSnapshot();
+
+        a1.setText("A1 editado");
+        SideMenuModelSnapshot after = model.getSnapshot();
+
+        assertNotSame(before, after);
+        assertEquals("A1", before.getItem(0).getChildren().get(0).getText());
+        assertEquals("A1 editado", after.getItem(0).getChildren().get(0).getText());
+        assertNotSame(before.getItem(0), after.getItem(0));
+        assertSame(before.getItem(1), after.getItem(1)); // B no cambió
+        assertEquals(4, after.getNodeCount());
+    }
+
+    @Test
+    public void structuralChangesAreVisible() {
+        model.getSnapshot();
+
+        b.addChild(new SideMenuItem("B2"));
+        assertEquals(5, model.getSnapshot().getNodeCount());
+        assertEquals(2, model.getSnapshot().getItem(1).getChildren().size());
+
+        a.removeChild(a1);
+        assertEquals(4, model.getSnapshot().getNodeCount());
+        assertTrue(model.getSnapshot().getItem(0).getChildren().isEmpty());
+
+        b.moveChild(1, 0);
+        assertEquals("B2", model.getSnapshot().getItem(1).getChildren().get(0).getText());
+    }
+
+    @Test
+    public void expandAndIconPathAreCopied() {
+        model.getSnapshot();
+
+        b.toggleExpanded();
+        assertTrue(model.getSnapshot().getItem(1).isExpanded());
+
+        b1.setIconPath("/icons/otro.png");
+        b1.setText("B1b"); // Cambio que aumenta la versión
+        assertEquals("/icons/otro.png", model.getSnapshot().getItem(1).getChildren().get(0).getIconPath());
+    }
+
+    @Test
+    public void movedSubtreeKeepsCorrectLevel() {
+        model.getSnapshot();
+
+        a.removeChild(a1);
+        SideMenuItem a1a = new SideMenuItem("A1a");
+        b1.addChild(a1);
+        a1.addChild(a1a);
+
+        SideMenuModelSnapshot.Node moved = model.getSnapshot().getItem(1).getChildren().get(0).getChildren().get(0);
+        assertSame(a1, moved.getItem());
+        assertEquals(2, moved.getLevel());
+        assertEquals(3, moved.getChildren().get(0).getLevel());
+    }
+}
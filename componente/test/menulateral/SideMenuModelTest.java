@@ -0,0 +1,155 @@
+package menulateral;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import javax.swing.SwingUtilities;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de las búsquedas de posición del modelo
+ */
+public class SideMenuModelTest {
+
+    private SideMenuModel model;
+
+    @Before
+    public void setUp() {
+        model = new SideMenuModel();
+        for (int i = 0; i < 100; i++) {
+            model.addItem(new SideMenuItem("key" + i, "Nuevo Item", null, null));
+        }
+    }
+
+    @Test
+    public void indexOfFindsItemsByKey() {
+        assertEquals(0, model.indexOf(model.getItem(0)));
+        assertEquals(57, model.indexOf(model.getItem(57)));
+        assertEquals(57, model.indexOf(new SideMenuItem("key57", "Otro", null, null))); // Igual por clave
+        assertEquals(-1, model.indexOf(new SideMenuItem("Nuevo Item")));
+        assertEquals(-1, model.indexOf(null));
+    }
+
+    @Test
+    public void nestedItemsAreNotTopLevel() {
+        SideMenuItem child = new SideMenuItem("Hijo");
+        model.getItem(3).addChild(child);
+
+        assertEquals(-1, model.indexOf(child));
+        assertEquals(0, model.getItem(3).getChildren().indexOf(child));
+    }
+
+    @Test
+    public void positionsFollowStructuralChanges() {
+        SideMenuItem item = model.getItem(50);
+        assertEquals(50, model.indexOf(item));
+
+        model.removeItem(model.getItem(10));
+        assertEquals(49, model.indexOf(item));
+
+        model.moveItem(49, 0);
+        assertEquals(0, model.indexOf(item));
+
+        model.removeItem(item);
+        assertEquals(-1, model.indexOf(item));
+        assertEquals(98, model.getItemCount());
+    }
+
+    @Test
+    public void positionsFollowInsertsBeforeTheItem() {
+        SideMenuItem item = model.getItem(80);
+        assertEquals(80, model.indexOf(item));
+
+        model.insertItem(0, new SideMenuItem("Primero"));
+        model.insertItem(40, new SideMenuItem("Medio"));
+
+        assertEquals(82, model.indexOf(item));
+        assertEquals(0, model.indexOf(model.getItem(0)));
+        assertEquals(101, model.indexOf(model.getItem(101)));
+    }
+
+    @Test
+    public void childPositionsComeFromTheIndex() {
+        SideMenuItem parent = model.getItem(0);
+        for (int i = 0; i < 50; i++) {
+            parent.addChild(new SideMenuItem("hijo" + i, "Hijo", null, null));
+        }
+        SideMenuItem child = model.findItemByKey("hijo30");
+
+        parent.removeChild(parent.getChild(5));
+        parent.moveChild(0, 40);
+        parent.removeChild(child);
+
+        assertNull(model.findItemByKey("hijo30"));
+        assertEquals(48, parent.getChildCount());
+        assertEquals("hijo0", parent.getChild(39).getKey()); // Se movió a 40 y luego se quitó uno anterior
+    }
+
+    @Test
+    public void duplicateKeysAreRejected() {
+        SideMenuItem tree = new SideMenuItem("nuevo", "Nuevo", null, null);
+        tree.addChild(new SideMenuItem("key7", "Repetido", null, null));
+
+        try {
+            model.addItem(tree);
+            fail("Se esperaba IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertEquals(100, model.getItemCount());
+            assertNull(model.findItemByKey("nuevo"));
+        }
+        try {
+            model.getItem(0).addChild(new SideMenuItem("key3", "Repetido", null, null));
+            fail("Se esperaba IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertEquals(0, model.getItem(0).getChildCount());
+        }
+        try {
+            model.setItems(java.util.List.of(new SideMenuItem("x", "X", null, null),
+                    new SideMenuItem("x", "Otra X", null, null)));
+            fail("Se esperaba IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertEquals(100, model.getItemCount());
+        }
+    }
+
+    @Test
+    public void openBatchDoesNotBlockOtherThreads() throws Exception {
+        CountDownLatch opened = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        int[] notifications = new int[1];
+        model.addChangeListener(e -> notifications[0]++);
+        Thread writer = new Thread(() -> model.update(m -> {
+            m.addItem(new SideMenuItem("lote", "En lote", null, null));
+            opened.countDown();
+            try {
+                finish.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            m.addItem(new SideMenuItem("lote2", "En lote", null, null));
+        }));
+        writer.start();
+        assertTrue(opened.await(5, TimeUnit.SECONDS));
+
+        // Con el lote abierto en otro hilo, las lecturas y los cambios no esperan
+        FutureTask<Boolean> reads = new FutureTask<>(() -> {
+            model.getItem(1).setExpanded(true);
+            model.getItem(2).toggleExpanded();
+            return model.findItemByText("En lote") != null
+                    && model.findItemsByPrefix("lote").size() == 1
+                    && model.indexOf(model.findItemByKey("lote")) == 100
+                    && model.containsItem(model.getItem(3))
+                    && !model.isUpdating();
+        });
+        SwingUtilities.invokeLater(reads);
+        assertTrue(reads.get(5, TimeUnit.SECONDS));
+
+        finish.countDown();
+        writer.join(5000);
+        SwingUtilities.invokeAndWait(() -> { }); // Los eventos se entregan en el EDT
+        assertEquals(102, model.getItemCount());
+        assertEquals(3, notifications[0]); // Un aviso por cada cambio suelto y uno por el lote
+    }
+}
@@ -0,0 +1,145 @@
+package menulateral;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.swing.SwingUtilities;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de la carga de menús declarados en XML
+ */
+public class SideMenuXmlLoaderTest {
+
+    private static final String MENU =
+            "<menu>\n"
+            + "  <item key=\"config\" text=\"Configuración\" icon=\"/icons/config.png\"\n"
+            + "        tooltip=\"Opciones\" expanded=\"true\">\n"
+            + "    <item key=\"users\" text=\"Usuarios\" action=\"usuarios.abrir\"/>\n"
+            + "    <item text=\"Permisos\" enabled=\"false\" shown=\"false\"/>\n"
+            + "  </item>\n"
+            + "  <item key=\"help\" text=\"Ayuda\"/>\n"
+            + "</menu>\n";
+
+    @Test
+    public void loadsTreeAndResolvesActions() throws Exception {
+        List<String> executed = new ArrayList<>();
+        SideMenuModel model = SideMenuXmlLoader.load(stream(MENU),
+                id -> id.equals("usuarios.abrir") ? e -> executed.add(id) : null);
+
+        assertEquals(2, model.getItemCount());
+        SideMenuItem config = model.getItem(0);
+        assertEquals("config", config.getKey());
+        assertEquals("Configuración", config.getText());
+        assertEquals("/icons/config.png", config.getIconPath());
+        assertEquals("Opciones", config.getTooltip());
+        assertTrue(config.isExpanded());
+        assertEquals(2, config.getChildCount());
+        assertEquals(1, config.getChild(0).getLevel());
+        assertFalse(config.getChild(1).isEnabled());
+        assertFalse(config.getChild(1).isShown());
+        assertNotNull(config.getChild(1).getKey()); // Clave generada
+
+        model.findItemByKey("users").executeAction();
+        assertEquals(List.of("usuarios.abrir"), executed);
+    }
+
+    @Test
+    public void binaryCopyMatchesXml() throws Exception {
+        SideMenuModel model = SideMenuXmlLoader.load(stream(MENU), id -> e -> { });
+        Path file = Files.createTempFile("menu", ".smnu");
+        SideMenuBinaryFormat.write(model, file);
+
+        SideMenuModel copy = SideMenuBinaryFormat.read(file);
+
+        assertEquals(model.getItemCount(), copy.getItemCount());
+        assertEquals(model.getItem(0).getChild(1).getKey(), copy.getItem(0).getChild(1).getKey());
+        assertEquals("Usuarios", copy.findItemByKey("users").getText());
+    }
+
+    @Test
+    public void errorsReportLineAndColumn() {
+        String xml = "<menu>\n"
+                + "  <item text=\"A\"/>\n"
+                + "  <item text=\"B\" color=\"rojo\"/>\n"
+                + "</menu>\n";
+        SideMenuLoadException e = loadFailure(xml);
+
+        assertEquals(3, e.getLineNumber());
+        assertTrue(e.getColumnNumber() > 0);
+        assertTrue(e.getMessage(), e.getMessage().startsWith("Línea 3, columna "));
+        assertTrue(e.getMessage(), e.getMessage().contains("atributo desconocido \"color\""));
+    }
+
+    @Test
+    public void invalidValuesAreRejected() {
+        assertTrue(loadFailure("<menu><item key=\"a\"/><item key=\"a\"/></menu>").getMessage()
+                .contains("clave repetida \"a\""));
+        assertTrue(loadFailure("<menu><item expanded=\"si\"/></menu>").getMessage()
+                .contains("debe ser true o false"));
+        assertTrue(loadFailure("<menu><item action=\"x\"/></menu>").getMessage()
+                .contains("requiere un SideMenuActionResolver"));
+        assertTrue(loadFailure("<menu><item>").getMessage().contains("XML mal formado"));
+    }
+
+    @Test
+    public void loadIntoAddsEverythingOrNothing() throws Exception {
+        SideMenuModel model = new SideMenuModel();
+        model.addItem(new SideMenuItem("Existente"));
+        List<SideMenuItem> inserted = new ArrayList<>();
+        int[] notifications = new int[1];
+        model.addChangeListener(e -> notifications[0]++);
+        model.addSideMenuModelListener(new SideMenuModelListener() {
+            @Override
+            public void itemsInserted(SideMenuModelEvent e) {
+                inserted.addAll(Arrays.asList(e.getItems()));
+            }
+
+            @Override
+            public void itemsRemoved(SideMenuModelEvent e) {
+            }
+
+            @Override
+            public void itemsChanged(SideMenuModelEvent e) {
+            }
+
+            @Override
+            public void itemsMoved(SideMenuModelEvent e) {
+            }
+        });
+
+        try {
+            SideMenuXmlLoader.loadInto(model, stream("<menu><item text=\"A\"/><item foo=\"1\"/></menu>"), null);
+            fail("Se esperaba SideMenuLoadException");
+        } catch (SideMenuLoadException e) {
+            assertEquals(1, model.getItemCount());
+        }
+
+        SideMenuXmlLoader.loadInto(model, stream("<menu><item text=\"A\"/><item text=\"B\"/></menu>"), null);
+        SwingUtilities.invokeAndWait(() -> { }); // Los eventos se entregan en el EDT
+        assertEquals(3, model.getItemCount());
+        assertEquals(1, notifications[0]); // Un solo lote
+        assertEquals(List.of(model.getItem(1), model.getItem(2)), inserted);
+    }
+
+    private static SideMenuLoadException loadFailure(String xml) {
+        try {
+            SideMenuXmlLoader.load(stream(xml), null);
+        } catch (SideMenuLoadException e) {
+            return e;
+        } catch (Exception e) {
+            throw new AssertionError("Excepción inesperada", e);
+        }
+        throw new AssertionError("Se esperaba SideMenuLoadException");
+    }
+
+    private static InputStream stream(String xml) {
+        return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+    }
+}